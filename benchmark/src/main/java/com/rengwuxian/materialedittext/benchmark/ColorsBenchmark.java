@@ -0,0 +1,44 @@
+package com.rengwuxian.materialedittext.benchmark;
+
+import com.rengwuxian.materialedittext.Colors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The colors derived from the base and primary colors, which are computed on every frame.
+ */
+@State(Scope.Thread)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ColorsBenchmark {
+
+  private int baseColor = 0xff000000;
+  private int primaryColor = 0xff3f51b5;
+  private float focusFraction;
+
+  /**
+   * The floating label color while the focus animation runs.
+   */
+  @Benchmark
+  public int floatingLabelColor() {
+    focusFraction = focusFraction >= 1 ? 0 : focusFraction + 0.01f;
+    return Colors.blend(Colors.withAlpha(baseColor, 0x44), primaryColor, focusFraction);
+  }
+
+  /**
+   * All the colors of one frame: text, hint, underline, bottom text and icon tint.
+   */
+  @Benchmark
+  public int frameColors() {
+    return Colors.withAlpha(baseColor, 0xdf)
+        ^ Colors.withAlpha(baseColor, 0x44)
+        ^ Colors.withAlpha(baseColor, 0x1e)
+        ^ Colors.withAlpha(baseColor, Colors.isLight(baseColor) ? 0xff : 0x8a);
+  }
+}
@@ -0,0 +1,238 @@
+package com.rengwuxian.materialedittext.benchmark;
+
+import com.rengwuxian.materialedittext.validation.EmailValidator;
+import com.rengwuxian.materialedittext.validation.IbanValidator;
+import com.rengwuxian.materialedittext.validation.LuhnValidator;
+import com.rengwuxian.materialedittext.validation.METValidator;
+import com.rengwuxian.materialedittext.validation.NumberRangeValidator;
+import com.rengwuxian.materialedittext.validation.PhoneNumberValidator;
+import com.rengwuxian.materialedittext.validation.RegexpValidator;
+import com.rengwuxian.materialedittext.validation.UrlValidator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+/**
+ * Each scanning format validator against a RegexpValidator with an equivalent regex, on a valid input, so both have to check the whole
+ * text. The regexes leave out the length limits and the port and number ranges, which the scanners check while scanning. The card number
+ * and IBAN regexes only check the shape; their benchmarks then run the checksum the way an app would, on the text without separators.
+ * <p/>
+ * The email and phone formats are short by definition, so only the URL path takes the length parameter.
+ */
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FormatValidatorBenchmark {
+
+  static final String EMAIL_REGEX = "[A-Za-z0-9!#$%&'*+/=?^_`{|}~-]+(\\.[A-Za-z0-9!#$%&'*+/=?^_`{|}~-]+)*"
+      + "@([A-Za-z0-9]([A-Za-z0-9-]*[A-Za-z0-9])?\\.)+[A-Za-z]{2,}";
+  static final String HOST_REGEX = "(([A-Za-z0-9]([A-Za-z0-9-]*[A-Za-z0-9])?\\.)+[A-Za-z]{2,}"
+      + "|((25[0-5]|2[0-4]\\d|1\\d\\d|[1-9]?\\d)\\.){3}(25[0-5]|2[0-4]\\d|1\\d\\d|[1-9]?\\d)|localhost)";
+  static final String URL_REGEX = "(?i)(https?|ftp)://" + HOST_REGEX + "(?=[:/?#]|$)(:\\d{1,5})?[^\\s\\p{Cntrl}]*";
+  static final String PHONE_REGEX = "\\+[1-9]\\d{1,14}";
+  static final String NUMBER_REGEX = "[+-]?\\d{1,18}";
+  static final String CARD_REGEX = "\\d([ -]?\\d){11,18}";
+  static final String IBAN_REGEX = "[A-Za-z]{2}\\d{2}( ?[A-Za-z0-9]){11,30}";
+  static final BigInteger NINETY_SEVEN = BigInteger.valueOf(97);
+
+  @State(Scope.Benchmark)
+  public static class Formats {
+
+    final String email = "john.doe+newsletter@mail.example.co.uk";
+    final String ipUrl = "http://192.168.100.200:8080/index.html";
+    final String phone = "+14155552671";
+    final String number = "-1234567";
+    final String card = "4111 1111 1111 1111";
+    final String iban = "DE89 3704 0044 0532 0130 00";
+
+    final EmailValidator emailScanner = new EmailValidator("Invalid email");
+    final RegexpValidator emailRegex = new RegexpValidator("Invalid email", EMAIL_REGEX);
+    final UrlValidator urlScanner = new UrlValidator("Invalid URL");
+    final RegexpValidator urlRegex = new RegexpValidator("Invalid URL", URL_REGEX);
+    final PhoneNumberValidator phoneScanner = new PhoneNumberValidator("Invalid phone number");
+    final RegexpValidator phoneRegex = new RegexpValidator("Invalid phone number", PHONE_REGEX);
+    final NumberRangeValidator numberScanner = new NumberRangeValidator("Out of range", -1000000000, 1000000000);
+    final RegexpValidator numberRegex = new RegexpValidator("Out of range", NUMBER_REGEX);
+    final LuhnValidator cardScanner = new LuhnValidator("Invalid card number");
+    final RegexpValidator cardRegex = new RegexpValidator("Invalid card number", CARD_REGEX);
+    final IbanValidator ibanScanner = new IbanValidator("Invalid IBAN");
+    final RegexpValidator ibanRegex = new RegexpValidator("Invalid IBAN", IBAN_REGEX);
+
+    @Setup
+    public void setUp() {
+      checkValid(emailScanner, emailRegex, email);
+      checkValid(urlScanner, urlRegex, ipUrl);
+      checkValid(phoneScanner, phoneRegex, phone);
+      checkValid(numberScanner, numberRegex, number);
+      checkValid(cardScanner, cardRegex, card);
+      checkValid(ibanScanner, ibanRegex, iban);
+      if (!luhn(card) || !iban97(iban)) {
+        throw new IllegalStateException("The inputs must pass the checksums");
+      }
+    }
+  }
+
+  @State(Scope.Benchmark)
+  public static class Urls {
+
+    /**
+     * Length of the URL's path.
+     */
+    @Param({"10", "1000", "100000"})
+    public int length;
+
+    String url;
+    final UrlValidator scanner = new UrlValidator("Invalid URL");
+    final RegexpValidator regex = new RegexpValidator("Invalid URL", URL_REGEX);
+
+    @Setup
+    public void setUp() {
+      url = "https://www.example.com:8080/" + path(length);
+      checkValid(scanner, regex, url);
+    }
+  }
+
+  @Benchmark
+  public boolean emailScanner(Formats formats) {
+    return formats.emailScanner.isValid(formats.email, false);
+  }
+
+  @Benchmark
+  public boolean emailRegex(Formats formats) {
+    return formats.emailRegex.isValid(formats.email, false);
+  }
+
+  @Benchmark
+  public boolean urlScanner(Urls urls) {
+    return urls.scanner.isValid(urls.url, false);
+  }
+
+  @Benchmark
+  public boolean urlRegex(Urls urls) {
+    return urls.regex.isValid(urls.url, false);
+  }
+
+  /**
+   * A URL with an IPv4 host, the dotted-quad scan.
+   */
+  @Benchmark
+  public boolean ipUrlScanner(Formats formats) {
+    return formats.urlScanner.isValid(formats.ipUrl, false);
+  }
+
+  @Benchmark
+  public boolean ipUrlRegex(Formats formats) {
+    return formats.urlRegex.isValid(formats.ipUrl, false);
+  }
+
+  @Benchmark
+  public boolean phoneScanner(Formats formats) {
+    return formats.phoneScanner.isValid(formats.phone, false);
+  }
+
+  @Benchmark
+  public boolean phoneRegex(Formats formats) {
+    return formats.phoneRegex.isValid(formats.phone, false);
+  }
+
+  @Benchmark
+  public boolean numberRangeScanner(Formats formats) {
+    return formats.numberScanner.isValid(formats.number, false);
+  }
+
+  /**
+   * The regex, then the range check an app would do after it.
+   */
+  @Benchmark
+  public boolean numberRangeRegex(Formats formats) {
+    if (!formats.numberRegex.isValid(formats.number, false)) {
+      return false;
+    }
+    long value = Long.parseLong(formats.number);
+    return value >= formats.numberScanner.getMin() && value <= formats.numberScanner.getMax();
+  }
+
+  @Benchmark
+  public boolean luhnScanner(Formats formats) {
+    return formats.cardScanner.isValid(formats.card, false);
+  }
+
+  /**
+   * The regex, then the Luhn checksum an app would run after it.
+   */
+  @Benchmark
+  public boolean luhnRegex(Formats formats) {
+    return formats.cardRegex.isValid(formats.card, false) && luhn(formats.card);
+  }
+
+  @Benchmark
+  public boolean ibanScanner(Formats formats) {
+    return formats.ibanScanner.isValid(formats.iban, false);
+  }
+
+  /**
+   * The regex, then the mod-97 checksum an app would run after it.
+   */
+  @Benchmark
+  public boolean ibanRegex(Formats formats) {
+    return formats.ibanRegex.isValid(formats.iban, false) && iban97(formats.iban);
+  }
+
+  static boolean luhn(String card) {
+    String digits = card.replaceAll("[ -]", "");
+    int sum = 0;
+    for (int i = 0; i < digits.length(); i++) {
+      int digit = digits.charAt(digits.length() - 1 - i) - '0';
+      if (i % 2 == 1) {
+        digit *= 2;
+        if (digit > 9) {
+          digit -= 9;
+        }
+      }
+      sum += digit;
+    }
+    return sum % 10 == 0;
+  }
+
+  static boolean iban97(String iban) {
+    String compact = iban.replace(" ", "").toUpperCase();
+    String rearranged = compact.substring(4) + compact.substring(0, 4);
+    StringBuilder number = new StringBuilder(rearranged.length() * 2);
+    for (int i = 0; i < rearranged.length(); i++) {
+      number.append(Character.getNumericValue(rearranged.charAt(i)));
+    }
+    return new BigInteger(number.toString()).mod(NINETY_SEVEN).intValue() == 1;
+  }
+
+  /**
+   * @return Path segments of letters, digits and dashes, with a query at the end, of exactly the given length.
+   */
+  static String path(int length) {
+    Random random = new Random(42);
+    StringBuilder builder = new StringBuilder(length + 16);
+    String chars = "abcdefghijklmnopqrstuvwxyz0123456789-";
+    while (builder.length() < length) {
+      for (int i = 0, count = 3 + random.nextInt(8); i < count; i++) {
+        builder.append(chars.charAt(random.nextInt(chars.length())));
+      }
+      builder.append(random.nextInt(16) == 0 ? "?q=" : "/");
+    }
+    builder.setLength(length);
+    return builder.toString();
+  }
+
+  static void checkValid(METValidator scanner, METValidator regex, String text) {
+    if (!scanner.isValid(text, false) || !regex.isValid(text, false)) {
+      throw new IllegalStateException("The input must be valid for both validators: " + text);
+    }
+  }
+}
@@ -0,0 +1,107 @@
+package com.rengwuxian.materialedittext.benchmark;
+
+import com.rengwuxian.materialedittext.validation.METFieldModel;
+import com.rengwuxian.materialedittext.validation.METLengthChecker;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The characters counter, which is updated on every keystroke: the length checker, the limits check and the counter text.
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LengthCheckerBenchmark {
+
+  public enum Checker {
+    /**
+     * No checker, the chars of the text.
+     */
+    CHARS,
+    /**
+     * Emoji count as one.
+     */
+    CODE_POINTS,
+    /**
+     * CJK and emoji count as two, like many Chinese apps count.
+     */
+    WIDTH
+  }
+
+  @Param({"10", "1000", "100000"})
+  public int length;
+
+  @Param({"LATIN", "CJK", "EMOJI", "MIXED"})
+  public Texts.Script script;
+
+  @Param({"CHARS", "CODE_POINTS", "WIDTH"})
+  public Checker checker;
+
+  private String text;
+  private int count;
+  private METFieldModel fieldModel;
+
+  @Setup
+  public void setUp() {
+    text = Texts.generate(script, length);
+    fieldModel = new METFieldModel();
+    fieldModel.setMinCharacters(5);
+    fieldModel.setMaxCharacters(140);
+    switch (checker) {
+      case CODE_POINTS:
+        fieldModel.setLengthChecker(new CodePointLengthChecker());
+        break;
+      case WIDTH:
+        fieldModel.setLengthChecker(new WidthLengthChecker());
+        break;
+    }
+    count = fieldModel.getLength(text);
+  }
+
+  @Benchmark
+  public int getLength() {
+    return fieldModel.getLength(text);
+  }
+
+  @Benchmark
+  public String counterText() {
+    return fieldModel.getCharactersCounterText(count, false);
+  }
+
+  /**
+   * All the counter does for one keystroke.
+   */
+  @Benchmark
+  public String keystroke() {
+    int count = fieldModel.getLength(text);
+    return fieldModel.isCharactersCountValid(text) ? fieldModel.getCharactersCounterText(count, false) : null;
+  }
+
+  static final class CodePointLengthChecker extends METLengthChecker {
+    @Override
+    public int getLength(CharSequence text) {
+      return Character.codePointCount(text, 0, text.length());
+    }
+  }
+
+  static final class WidthLengthChecker extends METLengthChecker {
+    @Override
+    public int getLength(CharSequence text) {
+      int length = 0;
+      for (int i = 0, count = text.length(); i < count; ) {
+        int codePoint = Character.codePointAt(text, i);
+        length += codePoint >= 0x2e80 ? 2 : 1;
+        i += Character.charCount(codePoint);
+      }
+      return length;
+    }
+  }
+}
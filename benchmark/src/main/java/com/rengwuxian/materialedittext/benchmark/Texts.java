@@ -0,0 +1,64 @@
+package com.rengwuxian.materialedittext.benchmark;
+
+import java.util.Random;
+
+/**
+ * Realistic inputs for the benchmarks: words with spaces and punctuation, CJK text, and text with emoji (surrogate pairs).
+ * <p/>
+ * The texts are generated from a fixed seed, so every run measures the same input.
+ */
+public final class Texts {
+
+  public enum Script {
+    LATIN, CJK, EMOJI, MIXED
+  }
+
+  private static final String[] WORDS = {
+      "the", "quick", "brown", "fox", "jumps", "over", "lazy", "dog", "material", "design", "field", "label", "hello", "world",
+      "r\u00e9sum\u00e9", "na\u00efve", "caf\u00e9", "street", "42", "2015"
+  };
+
+  private Texts() {
+  }
+
+  /**
+   * @return A text of exactly the given length in chars, never ending in half a surrogate pair.
+   */
+  public static String generate(Script script, int length) {
+    Random random = new Random(42);
+    StringBuilder builder = new StringBuilder(length + 16);
+    while (builder.length() < length) {
+      Script next = script == Script.MIXED ? Script.values()[random.nextInt(3)] : script;
+      switch (next) {
+        case LATIN:
+          appendWord(builder, random);
+          break;
+        case CJK:
+          appendCjk(builder, random);
+          break;
+        case EMOJI:
+          appendWord(builder, random);
+          builder.appendCodePoint(0x1f600 + random.nextInt(0x50));
+          builder.append(' ');
+          break;
+      }
+    }
+    builder.setLength(length);
+    if (Character.isHighSurrogate(builder.charAt(length - 1))) {
+      builder.setCharAt(length - 1, ' ');
+    }
+    return builder.toString();
+  }
+
+  private static void appendWord(StringBuilder builder, Random random) {
+    builder.append(WORDS[random.nextInt(WORDS.length)]);
+    builder.append(random.nextInt(8) == 0 ? ", " : " ");
+  }
+
+  private static void appendCjk(StringBuilder builder, Random random) {
+    for (int i = 0, count = 2 + random.nextInt(6); i < count; i++) {
+      builder.append((char) (0x4e00 + random.nextInt(0x5200)));
+    }
+    builder.append(random.nextInt(4) == 0 ? '\u3002' : '\uff0c');
+  }
+}
@@ -0,0 +1,97 @@
+package com.rengwuxian.materialedittext.benchmark;
+
+import com.rengwuxian.materialedittext.validation.LengthValidator;
+import com.rengwuxian.materialedittext.validation.METFieldModel;
+import com.rengwuxian.materialedittext.validation.METValidationResult;
+import com.rengwuxian.materialedittext.validation.RegexpValidator;
+import com.rengwuxian.materialedittext.validation.RequiredValidator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The validation that runs on every keystroke with met_autoValidate. The format validators are compared with their regexes in
+ * {@link FormatValidatorBenchmark}.
+ */
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidatorBenchmark {
+
+  @State(Scope.Benchmark)
+  public static class Input {
+
+    @Param({"10", "1000", "100000"})
+    public int length;
+
+    @Param({"LATIN", "CJK", "EMOJI", "MIXED"})
+    public Texts.Script script;
+
+    String text;
+
+    @Setup
+    public void setUp() {
+      text = Texts.generate(script, length);
+    }
+  }
+
+  /**
+   * A typical "no markup" rule, it has to scan the whole text.
+   */
+  @State(Scope.Benchmark)
+  public static class Regexp {
+
+    RegexpValidator validator;
+
+    @Setup
+    public void setUp() {
+      validator = new RegexpValidator("No markup", "[^<>]*");
+    }
+  }
+
+  @State(Scope.Benchmark)
+  public static class Model {
+
+    /**
+     * Validators in the model. They all pass, so {@link #validate(Input, Model)} runs all of them.
+     */
+    @Param({"1", "4", "16"})
+    public int validators;
+
+    METFieldModel fieldModel;
+
+    @Setup
+    public void setUp() {
+      fieldModel = new METFieldModel();
+      for (int i = 0; i < validators; i++) {
+        switch (i % 3) {
+          case 0:
+            fieldModel.addValidator(new RegexpValidator("No markup", "[^<>]*"));
+            break;
+          case 1:
+            fieldModel.addValidator(new RequiredValidator("Required"));
+            break;
+          default:
+            fieldModel.addValidator(new LengthValidator("Too long", 0, Integer.MAX_VALUE));
+            break;
+        }
+      }
+    }
+  }
+
+  @Benchmark
+  public boolean regexp(Input input, Regexp regexp) {
+    return regexp.validator.isValid(input.text, false);
+  }
+
+  @Benchmark
+  public METValidationResult validate(Input input, Model model) {
+    return model.fieldModel.validate(input.text);
+  }
+}
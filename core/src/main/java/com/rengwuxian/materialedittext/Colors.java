@@ -0,0 +1,44 @@
+package com.rengwuxian.materialedittext;
+
+/**
+ * Created by Administrator on 2014/12/12.
+ */
+public class Colors {
+  public static boolean isLight(int color) {
+    int red = (color >> 16) & 0xff;
+    int green = (color >> 8) & 0xff;
+    int blue = color & 0xff;
+    return Math.sqrt(
+        red * red * .241 +
+            green * green * .691 +
+            blue * blue * .068) > 130;
+  }
+
+  /**
+   * @param alpha 0 to 255
+   * @return The color's RGB with the given alpha, e.g. the hint color derived from the base color.
+   */
+  public static int withAlpha(int color, int alpha) {
+    return color & 0x00ffffff | alpha << 24;
+  }
+
+  /**
+   * Interpolate each ARGB channel between two colors, without boxing.
+   *
+   * @param fraction 0 for the start color, 1 for the end color
+   */
+  public static int blend(int startColor, int endColor, float fraction) {
+    int startA = (startColor >> 24) & 0xff;
+    int startR = (startColor >> 16) & 0xff;
+    int startG = (startColor >> 8) & 0xff;
+    int startB = startColor & 0xff;
+    int endA = (endColor >> 24) & 0xff;
+    int endR = (endColor >> 16) & 0xff;
+    int endG = (endColor >> 8) & 0xff;
+    int endB = endColor & 0xff;
+    return ((startA + (int) (fraction * (endA - startA))) << 24)
+        | ((startR + (int) (fraction * (endR - startR))) << 16)
+        | ((startG + (int) (fraction * (endG - startG))) << 8)
+        | (startB + (int) (fraction * (endB - startB)));
+  }
+}
@@ -0,0 +1,68 @@
+package com.rengwuxian.materialedittext;
+
+/**
+ * The math behind the space the decorations take: the bottom lines and the extra paddings around the text.
+ * <p/>
+ * All sizes are in pixels. The views measure the text and pass the results in, so this can run and be tested on a plain JVM.
+ */
+public final class DecorationMetrics {
+
+  private DecorationMetrics() {
+  }
+
+  /**
+   * @param fixedBottomTextLines Whether the bottom lines never change, see met_fixedBottomTextLines.
+   * @param minBottomTextLines   met_minBottomTextLines
+   * @param extendBottom         Whether something is shown below the underline: a characters counter, the ellipsis, an error or a
+   *                             helper text.
+   * @return The bottom lines to reserve when there's no bottom text.
+   */
+  public static int getMinBottomLines(boolean fixedBottomTextLines, int minBottomTextLines, boolean extendBottom) {
+    if (fixedBottomTextLines) {
+      return Math.max(minBottomTextLines, 1);
+    }
+    return minBottomTextLines > 0 ? minBottomTextLines : extendBottom ? 1 : 0;
+  }
+
+  /**
+   * @param textLineCount The lines of the error or helper text at the bottom text width.
+   * @return The bottom lines to show for the error or helper text.
+   */
+  public static int getBottomLines(boolean fixedBottomTextLines, int minBottomLines, int minBottomTextLines, int textLineCount) {
+    return fixedBottomTextLines ? minBottomLines : Math.max(textLineCount, minBottomTextLines);
+  }
+
+  /**
+   * @return The width left for the error or helper text between the characters counter and the ellipsis.
+   */
+  public static int getBottomTextWidth(int width, int paddingLeft, int paddingRight, int leftOffset, int rightOffset) {
+    return width - leftOffset - rightOffset - paddingLeft - paddingRight;
+  }
+
+  /**
+   * @param gap The space after the three dots.
+   * @return The width of the single line ellipsis, or 0 if it's not shown.
+   */
+  public static int getBottomEllipsisWidth(boolean singleLineEllipsis, int bottomEllipsisSize, int gap) {
+    return singleLineEllipsis ? bottomEllipsisSize * 5 + gap : 0;
+  }
+
+  public static int getExtraPaddingTop(boolean floatingLabelEnabled, int floatingLabelTextSize, int floatingLabelPadding) {
+    return floatingLabelEnabled ? floatingLabelTextSize + floatingLabelPadding : floatingLabelPadding;
+  }
+
+  /**
+   * @param bottomLineHeight The line height of the bottom text, descent - ascent.
+   * @param bottomLines      The bottom lines, fractional while animating.
+   */
+  public static int getExtraPaddingBottom(float bottomLineHeight, float bottomLines, boolean hideUnderline, int bottomSpacing) {
+    return (int) (bottomLineHeight * bottomLines) + (hideUnderline ? bottomSpacing : bottomSpacing * 2);
+  }
+
+  /**
+   * @return The extra padding on the side of an icon, or 0 if there's none.
+   */
+  public static int getExtraPaddingIcon(boolean hasIcon, int iconOuterWidth, int iconPadding) {
+    return hasIcon ? iconOuterWidth + iconPadding : 0;
+  }
+}
@@ -0,0 +1,155 @@
+package com.rengwuxian.materialedittext.validation;
+
+import android.support.annotation.NonNull;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+
+/**
+ * Validation policy that learns the cost and the failure rate of each validator and runs the cheap, likely-to-fail ones first.
+ * <p/>
+ * The reorder never changes the reported error, only the work done to find it. The error follows the declared priorities (see
+ * {@link #setPriority(METValidator, int)}), and ties go to the validator added first: once a validator fails, only the validators with
+ * a higher priority, or the same priority and added before it, are still run. By default all validators share the same priority, so the
+ * reported error is the one {@link METValidationPolicy#SEQUENTIAL} reports.
+ * <p/>
+ * A policy keeps statistics, so use one instance per field.
+ */
+public class AdaptiveValidationPolicy extends METValidationPolicy {
+
+  /**
+   * The evaluation order is recomputed every this many passes.
+   */
+  private static final int REORDER_INTERVAL = 16;
+
+  /**
+   * Weight of the newest sample in the moving averages.
+   */
+  private static final float SMOOTHING = 0.2f;
+
+  /**
+   * Failure rate assumed for a validator that hasn't run yet.
+   */
+  private static final float INITIAL_FAILURE_RATE = 0.5f;
+
+  /**
+   * Keeps the score finite for validators that never fail.
+   */
+  private static final float MIN_FAILURE_RATE = 0.01f;
+
+  private final IdentityHashMap<METValidator, Stats> stats = new IdentityHashMap<>();
+  private final IdentityHashMap<METValidator, Integer> priorities = new IdentityHashMap<>();
+  private int[] order = new int[0];
+  private float[] scores = new float[0];
+  private int passes;
+
+  @NonNull
+  @Override
+  public synchronized METValidationResult validate(@NonNull List<METValidator> validators, @NonNull CharSequence text, boolean isEmpty) {
+    int size = validators.size();
+    if (order.length != size || passes % REORDER_INTERVAL == 0) {
+      reorder(validators);
+    }
+    passes++;
+
+    int failedIndex = -1;
+    int failedPriority = 0;
+    METValidationResult failedResult = METValidationResult.VALID;
+    for (int i = 0; i < size; i++) {
+      int index = order[i];
+      METValidator validator = validators.get(index);
+      int priority = getPriority(validator);
+      if (failedIndex >= 0 && (priority < failedPriority || priority == failedPriority && index > failedIndex)) {
+        // its error would lose against the one already found
+        continue;
+      }
+      long start = System.nanoTime();
+      METValidationResult result = run(validator, text, isEmpty);
+      getStats(validator).record(System.nanoTime() - start, !result.isValid());
+      if (!result.isValid()) {
+        failedIndex = index;
+        failedPriority = priority;
+        failedResult = result;
+      }
+    }
+    return failedResult;
+  }
+
+  /**
+   * Set the priority of a validator's error. When several validators fail, the error with the highest priority is reported. The default
+   * priority is 0; between validators of the same priority, the one added first wins.
+   */
+  public synchronized void setPriority(@NonNull METValidator validator, int priority) {
+    priorities.put(validator, priority);
+  }
+
+  public synchronized int getPriority(@NonNull METValidator validator) {
+    Integer priority = priorities.get(validator);
+    return priority == null ? 0 : priority;
+  }
+
+  /**
+   * Forget everything learned so far. Priorities are kept.
+   */
+  public synchronized void reset() {
+    stats.clear();
+    order = new int[0];
+    passes = 0;
+  }
+
+  private Stats getStats(METValidator validator) {
+    Stats validatorStats = stats.get(validator);
+    if (validatorStats == null) {
+      validatorStats = new Stats();
+      stats.put(validator, validatorStats);
+    }
+    return validatorStats;
+  }
+
+  /**
+   * Sort by expected cost per detected failure, cheapest first. Ties keep the declared order.
+   */
+  private void reorder(List<METValidator> validators) {
+    int size = validators.size();
+    if (order.length != size) {
+      order = new int[size];
+      scores = new float[size];
+    }
+    if (stats.size() > size) {
+      // drop the statistics of removed validators
+      IdentityHashMap<METValidator, Stats> current = new IdentityHashMap<>();
+      for (int i = 0; i < size; i++) {
+        Stats validatorStats = stats.get(validators.get(i));
+        if (validatorStats != null) {
+          current.put(validators.get(i), validatorStats);
+        }
+      }
+      stats.clear();
+      stats.putAll(current);
+    }
+    for (int i = 0; i < size; i++) {
+      Stats validatorStats = stats.get(validators.get(i));
+      scores[i] = validatorStats == null ? 0 : validatorStats.cost / Math.max(validatorStats.failureRate, MIN_FAILURE_RATE);
+      order[i] = i;
+    }
+    for (int i = 1; i < size; i++) {
+      int index = order[i];
+      int j = i - 1;
+      while (j >= 0 && scores[order[j]] > scores[index]) {
+        order[j + 1] = order[j];
+        j--;
+      }
+      order[j + 1] = index;
+    }
+  }
+
+  private static class Stats {
+    float cost = -1;
+    float failureRate = INITIAL_FAILURE_RATE;
+
+    void record(long nanos, boolean failed) {
+      cost = cost < 0 ? nanos : cost + (nanos - cost) * SMOOTHING;
+      failureRate += ((failed ? 1 : 0) - failureRate) * SMOOTHING;
+    }
+  }
+}
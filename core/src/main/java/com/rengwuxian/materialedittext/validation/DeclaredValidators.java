@@ -0,0 +1,205 @@
+package com.rengwuxian.materialedittext.validation;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds the validators declared with the met_required, met_regex, met_minLength/met_maxLength and met_format attributes.
+ * <p/>
+ * The validators are immutable and cached by their declaration, so all the views sharing a style share the same instances, and each regex
+ * is compiled only once. Unless met_required is declared, the other rules pass on empty text: the field stays optional.
+ */
+public final class DeclaredValidators {
+
+  public static final int FORMAT_NONE = 0;
+  public static final int FORMAT_EMAIL = 1;
+  public static final int FORMAT_URL = 2;
+  public static final int FORMAT_CREDIT_CARD = 3;
+  public static final int FORMAT_IBAN = 4;
+  public static final int FORMAT_PHONE = 5;
+
+  /**
+   * Max number of declarations kept. An app declares a handful, so this only bounds the cache when declarations are built at runtime.
+   */
+  static final int MAX_CACHED_DECLARATIONS = 32;
+
+  private static final Map<Declaration, List<METValidator>> cache = new LinkedHashMap<Declaration, List<METValidator>>(16, 0.75f, true) {
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<Declaration, List<METValidator>> eldest) {
+      return size() > MAX_CACHED_DECLARATIONS;
+    }
+  };
+
+  private DeclaredValidators() {
+  }
+
+  /**
+   * Get the validators for a declaration, in this order: required, length, format, regex.
+   * <p/>
+   * The returned validators are shared, so their error messages can't be changed: {@link METValidator#setErrorMessage(String)} throws.
+   *
+   * @param regex       The regex to match, or null for none
+   * @param minLength   Min length. 0 means no limit.
+   * @param maxLength   Max length. 0 means no limit.
+   * @param format      One of the FORMAT_* constants
+   * @return An unmodifiable list, empty if nothing is declared
+   */
+  @NonNull
+  public static List<METValidator> obtain(boolean required, @NonNull String requiredError, @Nullable String regex, @NonNull String regexError,
+                                          int minLength, int maxLength, @NonNull String lengthError, int format, @NonNull String formatError) {
+    if (!required && regex == null && minLength <= 0 && maxLength <= 0 && format == FORMAT_NONE) {
+      return Collections.emptyList();
+    }
+    Declaration declaration = new Declaration(required, requiredError, regex, regexError, minLength, maxLength, lengthError, format, formatError);
+    synchronized (cache) {
+      List<METValidator> validators = cache.get(declaration);
+      if (validators == null) {
+        validators = Collections.unmodifiableList(build(declaration));
+        cache.put(declaration, validators);
+      }
+      return validators;
+    }
+  }
+
+  static int cachedDeclarationCount() {
+    synchronized (cache) {
+      return cache.size();
+    }
+  }
+
+  private static List<METValidator> build(Declaration declaration) {
+    List<METValidator> validators = new ArrayList<>(4);
+    if (declaration.required) {
+      validators.add(new Declared(new RequiredValidator(declaration.requiredError), false));
+    }
+    // the other rules only check what was typed
+    boolean optional = !declaration.required;
+    if (declaration.minLength > 0 || declaration.maxLength > 0) {
+      validators.add(new Declared(new LengthValidator(declaration.lengthError, declaration.minLength, declaration.maxLength), optional));
+    }
+    METValidator format = null;
+    switch (declaration.format) {
+      case FORMAT_EMAIL:
+        format = new EmailValidator(declaration.formatError);
+        break;
+      case FORMAT_URL:
+        format = new UrlValidator(declaration.formatError);
+        break;
+      case FORMAT_CREDIT_CARD:
+        format = new LuhnValidator(declaration.formatError);
+        break;
+      case FORMAT_IBAN:
+        format = new IbanValidator(declaration.formatError);
+        break;
+      case FORMAT_PHONE:
+        format = new PhoneNumberValidator(declaration.formatError);
+        break;
+    }
+    if (format != null) {
+      validators.add(new Declared(format, optional));
+    }
+    if (declaration.regex != null) {
+      validators.add(new Declared(new RegexpValidator(declaration.regexError, declaration.regex), optional));
+    }
+    return validators;
+  }
+
+  /**
+   * A shared declared rule: its error message is fixed, and an optional rule passes on empty text.
+   */
+  static final class Declared extends METValidator {
+    private final METValidator rule;
+    private final boolean optional;
+
+    Declared(METValidator rule, boolean optional) {
+      super(rule.getErrorMessage());
+      this.rule = rule;
+      this.optional = optional;
+    }
+
+    /**
+     * @return The built-in validator checking the rule.
+     */
+    METValidator getRule() {
+      return rule;
+    }
+
+    @Override
+    public void setErrorMessage(@NonNull String errorMessage) {
+      throw new UnsupportedOperationException("Declared validators are shared by all the views with the same declaration. "
+          + "Add your own validator to change the message.");
+    }
+
+    @Override
+    public boolean isValid(@NonNull CharSequence text, boolean isEmpty) {
+      return (optional && isEmpty) || rule.isValid(text, isEmpty);
+    }
+
+    @NonNull
+    @Override
+    public METValidationResult validate(@NonNull CharSequence text, boolean isEmpty) {
+      return optional && isEmpty ? METValidationResult.VALID : rule.validate(text, isEmpty);
+    }
+  }
+
+  private static final class Declaration {
+    final boolean required;
+    final String requiredError;
+    final String regex;
+    final String regexError;
+    final int minLength;
+    final int maxLength;
+    final String lengthError;
+    final int format;
+    final String formatError;
+    final int hashCode;
+
+    Declaration(boolean required, String requiredError, String regex, String regexError, int minLength, int maxLength, String lengthError,
+                int format, String formatError) {
+      this.required = required;
+      this.requiredError = requiredError;
+      this.regex = regex;
+      this.regexError = regexError;
+      this.minLength = minLength;
+      this.maxLength = maxLength;
+      this.lengthError = lengthError;
+      this.format = format;
+      this.formatError = formatError;
+      int hash = required ? 1 : 0;
+      hash = 31 * hash + requiredError.hashCode();
+      hash = 31 * hash + (regex == null ? 0 : regex.hashCode());
+      hash = 31 * hash + regexError.hashCode();
+      hash = 31 * hash + minLength;
+      hash = 31 * hash + maxLength;
+      hash = 31 * hash + lengthError.hashCode();
+      hash = 31 * hash + format;
+      hash = 31 * hash + formatError.hashCode();
+      this.hashCode = hash;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Declaration)) {
+        return false;
+      }
+      Declaration other = (Declaration) o;
+      return hashCode == other.hashCode && required == other.required && minLength == other.minLength && maxLength == other.maxLength
+          && format == other.format && requiredError.equals(other.requiredError) && (regex == null ? other.regex == null : regex.equals(other.regex))
+          && regexError.equals(other.regexError) && lengthError.equals(other.lengthError) && formatError.equals(other.formatError);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+  }
+}
@@ -0,0 +1,73 @@
+package com.rengwuxian.materialedittext.validation;
+
+import android.support.annotation.NonNull;
+
+/**
+ * Validator for e-mail addresses, without regexes.
+ * <p/>
+ * Accepts a dot-atom local part (RFC 5322, no quoted strings or comments) of at most 64 characters, and a host name with an alphabetic
+ * top-level domain. The text is scanned once and nothing is allocated.
+ */
+public class EmailValidator extends METValidator {
+
+  private static final int MAX_LENGTH = 254;
+  private static final int MAX_LOCAL_PART_LENGTH = 64;
+
+  public EmailValidator(@NonNull String errorMessage) {
+    super(errorMessage);
+  }
+
+  @Override
+  public boolean isValid(@NonNull CharSequence text, boolean isEmpty) {
+    int length = text.length();
+    if (length == 0 || length > MAX_LENGTH) {
+      return false;
+    }
+    int at = 0;
+    char previous = '.';
+    for (; at < length; at++) {
+      char c = text.charAt(at);
+      if (c == '@') {
+        break;
+      }
+      if (c == '.' ? previous == '.' : !isAtomChar(c)) {
+        return false;
+      }
+      previous = c;
+    }
+    if (at == 0 || at == length || at > MAX_LOCAL_PART_LENGTH || previous == '.') {
+      return false;
+    }
+    return FormatScanner.isHostName(text, at + 1, length);
+  }
+
+  private static boolean isAtomChar(char c) {
+    if (FormatScanner.isLetterOrDigit(c)) {
+      return true;
+    }
+    switch (c) {
+      case '!':
+      case '#':
+      case '$':
+      case '%':
+      case '&':
+      case '\'':
+      case '*':
+      case '+':
+      case '-':
+      case '/':
+      case '=':
+      case '?':
+      case '^':
+      case '_':
+      case '`':
+      case '{':
+      case '|':
+      case '}':
+      case '~':
+        return true;
+      default:
+        return false;
+    }
+  }
+}
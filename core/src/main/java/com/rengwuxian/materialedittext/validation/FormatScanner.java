@@ -0,0 +1,107 @@
+package com.rengwuxian.materialedittext.validation;
+
+/**
+ * Character-level helpers shared by the built-in format validators. Nothing in here allocates.
+ */
+final class FormatScanner {
+
+  private FormatScanner() {
+  }
+
+  static boolean isDigit(char c) {
+    return c >= '0' && c <= '9';
+  }
+
+  static boolean isLetter(char c) {
+    return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+  }
+
+  static boolean isLetterOrDigit(char c) {
+    return isLetter(c) || isDigit(c);
+  }
+
+  static char toUpperCase(char c) {
+    return c >= 'a' && c <= 'z' ? (char) (c - ('a' - 'A')) : c;
+  }
+
+  /**
+   * @return True if text[start, end) is a host name with at least two labels and an alphabetic top-level domain.
+   */
+  static boolean isHostName(CharSequence text, int start, int end) {
+    if (start >= end || end - start > 253) {
+      return false;
+    }
+    int dots = 0;
+    int labelLength = 0;
+    boolean labelAlphabetic = true;
+    char previous = '.';
+    for (int i = start; i < end; i++) {
+      char c = text.charAt(i);
+      if (c == '.') {
+        if (labelLength == 0 || previous == '-') {
+          return false;
+        }
+        dots++;
+        labelLength = 0;
+        labelAlphabetic = true;
+      } else if (isLetterOrDigit(c) || c == '-') {
+        if ((labelLength == 0 && c == '-') || ++labelLength > 63) {
+          return false;
+        }
+        labelAlphabetic &= isLetter(c);
+      } else {
+        return false;
+      }
+      previous = c;
+    }
+    return dots > 0 && previous != '-' && labelLength >= 2 && labelAlphabetic;
+  }
+
+  /**
+   * @return True if text[start, end) is a dotted-quad IPv4 address.
+   */
+  static boolean isIpv4(CharSequence text, int start, int end) {
+    int dots = 0;
+    int digits = 0;
+    int value = 0;
+    for (int i = start; i < end; i++) {
+      char c = text.charAt(i);
+      if (c == '.') {
+        if (digits == 0 || ++dots > 3) {
+          return false;
+        }
+        digits = 0;
+        value = 0;
+      } else if (isDigit(c)) {
+        value = value * 10 + (c - '0');
+        if (++digits > 3 || value > 255) {
+          return false;
+        }
+      } else {
+        return false;
+      }
+    }
+    return dots == 3 && digits > 0;
+  }
+
+  /**
+   * @param lowerCasePrefix ASCII prefix in lower case
+   * @return True if text starts with the prefix at the offset, ignoring ASCII case.
+   */
+  static boolean startsWithIgnoreCase(CharSequence text, int offset, String lowerCasePrefix) {
+    int length = lowerCasePrefix.length();
+    if (text.length() - offset < length) {
+      return false;
+    }
+    for (int i = 0; i < length; i++) {
+      char c = text.charAt(offset + i);
+      if (c >= 'A' && c <= 'Z') {
+        c = (char) (c + ('a' - 'A'));
+      }
+      if (c != lowerCasePrefix.charAt(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
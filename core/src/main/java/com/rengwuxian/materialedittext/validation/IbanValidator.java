@@ -0,0 +1,75 @@
+package com.rengwuxian.materialedittext.validation;
+
+import android.support.annotation.NonNull;
+
+/**
+ * Validator for International Bank Account Numbers (ISO 13616): a country code, two check digits and up to 30 alphanumeric characters,
+ * passing the mod-97 checksum. Spaces are ignored and letters may be in either case. Country-specific lengths are not checked.
+ * <p/>
+ * The text is scanned once and nothing is allocated.
+ */
+public class IbanValidator extends METValidator {
+
+  private static final int MIN_LENGTH = 15;
+  private static final int MAX_LENGTH = 34;
+
+  public IbanValidator(@NonNull String errorMessage) {
+    super(errorMessage);
+  }
+
+  @Override
+  public boolean isValid(@NonNull CharSequence text, boolean isEmpty) {
+    // the first four characters are moved to the end for the checksum, so hold them until the rest is consumed
+    char country0 = 0, country1 = 0, check0 = 0, check1 = 0;
+    int count = 0;
+    int remainder = 0;
+    for (int i = 0, length = text.length(); i < length; i++) {
+      char c = FormatScanner.toUpperCase(text.charAt(i));
+      if (c == ' ') {
+        continue;
+      }
+      switch (count) {
+        case 0:
+          country0 = c;
+          break;
+        case 1:
+          country1 = c;
+          break;
+        case 2:
+          check0 = c;
+          break;
+        case 3:
+          check1 = c;
+          break;
+        default:
+          if (!FormatScanner.isLetterOrDigit(c)) {
+            return false;
+          }
+          remainder = mod97(remainder, c);
+          break;
+      }
+      if (++count > MAX_LENGTH) {
+        return false;
+      }
+    }
+    if (count < MIN_LENGTH || !FormatScanner.isLetter(country0) || !FormatScanner.isLetter(country1)
+        || !FormatScanner.isDigit(check0) || !FormatScanner.isDigit(check1)) {
+      return false;
+    }
+    remainder = mod97(remainder, country0);
+    remainder = mod97(remainder, country1);
+    remainder = mod97(remainder, check0);
+    remainder = mod97(remainder, check1);
+    return remainder == 1;
+  }
+
+  /**
+   * Append an upper-case letter (as its two-digit value) or a digit to the running remainder.
+   */
+  private static int mod97(int remainder, char c) {
+    if (FormatScanner.isDigit(c)) {
+      return (remainder * 10 + (c - '0')) % 97;
+    }
+    return (remainder * 100 + (c - 'A' + 10)) % 97;
+  }
+}
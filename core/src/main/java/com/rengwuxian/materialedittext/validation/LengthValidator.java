@@ -0,0 +1,36 @@
+package com.rengwuxian.materialedittext.validation;
+
+import android.support.annotation.NonNull;
+
+/**
+ * Validator for the length of the text. Unlike the characters counter, this only reports through the error text.
+ */
+public class LengthValidator extends METValidator {
+
+  private final int minLength;
+  private final int maxLength;
+
+  /**
+   * @param minLength Min length. 0 means no limit.
+   * @param maxLength Max length. 0 means no limit.
+   */
+  public LengthValidator(@NonNull String errorMessage, int minLength, int maxLength) {
+    super(errorMessage);
+    this.minLength = minLength;
+    this.maxLength = maxLength;
+  }
+
+  public int getMinLength() {
+    return minLength;
+  }
+
+  public int getMaxLength() {
+    return maxLength;
+  }
+
+  @Override
+  public boolean isValid(@NonNull CharSequence text, boolean isEmpty) {
+    int length = text.length();
+    return length >= minLength && (maxLength <= 0 || length <= maxLength);
+  }
+}
@@ -0,0 +1,49 @@
+package com.rengwuxian.materialedittext.validation;
+
+import android.support.annotation.NonNull;
+
+/**
+ * Validator for payment card numbers: 12 to 19 digits passing the Luhn checksum. A single space or hyphen between two digits is ignored,
+ * leading, trailing or repeated separators are not.
+ * <p/>
+ * The text is scanned once and nothing is allocated.
+ */
+public class LuhnValidator extends METValidator {
+
+  private static final int MIN_DIGITS = 12;
+  private static final int MAX_DIGITS = 19;
+
+  public LuhnValidator(@NonNull String errorMessage) {
+    super(errorMessage);
+  }
+
+  @Override
+  public boolean isValid(@NonNull CharSequence text, boolean isEmpty) {
+    int digits = 0;
+    int sum = 0;
+    boolean afterDigit = false;
+    // walk from the check digit to the left, doubling every second digit
+    for (int i = text.length() - 1; i >= 0; i--) {
+      char c = text.charAt(i);
+      if (FormatScanner.isDigit(c)) {
+        int digit = c - '0';
+        if ((digits & 1) == 1) {
+          digit *= 2;
+          if (digit > 9) {
+            digit -= 9;
+          }
+        }
+        sum += digit;
+        if (++digits > MAX_DIGITS) {
+          return false;
+        }
+        afterDigit = true;
+      } else if ((c == ' ' || c == '-') && afterDigit) {
+        afterDigit = false;
+      } else {
+        return false;
+      }
+    }
+    return afterDigit && digits >= MIN_DIGITS && sum % 10 == 0;
+  }
+}
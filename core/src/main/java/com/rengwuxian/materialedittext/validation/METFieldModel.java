@@ -0,0 +1,180 @@
+package com.rengwuxian.materialedittext.validation;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The rules of a field without the view: the characters count limits, the length checker, the characters counter text and the
+ * validators.
+ * <p/>
+ * It's plain Java, so the rules of a form can check text in a ViewModel, a background import or a unit test. The views apply their rules
+ * through one of these, so the results are the same.
+ */
+public class METFieldModel {
+
+  private int minCharacters;
+  private int maxCharacters;
+  private METLengthChecker lengthChecker;
+  private List<METValidator> validators;
+  private METValidationPolicy validationPolicy = METValidationPolicy.SEQUENTIAL;
+
+  /**
+   * The last counter text, kept until the count or the limits change, so that every frame doesn't build a new String.
+   */
+  private String charactersCounterText;
+  private int charactersCounterTextCount;
+  private boolean charactersCounterTextRtl;
+
+  public int getMinCharacters() {
+    return minCharacters;
+  }
+
+  /**
+   * @param min Min characters count limit. 0 means no limit.
+   */
+  public void setMinCharacters(int min) {
+    this.minCharacters = min;
+    charactersCounterText = null;
+  }
+
+  public int getMaxCharacters() {
+    return maxCharacters;
+  }
+
+  /**
+   * @param max Max characters count limit. 0 means no limit.
+   */
+  public void setMaxCharacters(int max) {
+    this.maxCharacters = max;
+    charactersCounterText = null;
+  }
+
+  @Nullable
+  public METLengthChecker getLengthChecker() {
+    return lengthChecker;
+  }
+
+  /**
+   * @param lengthChecker How to count the characters, or null to count the chars of the text.
+   */
+  public void setLengthChecker(@Nullable METLengthChecker lengthChecker) {
+    this.lengthChecker = lengthChecker;
+  }
+
+  public boolean hasCharactersCounter() {
+    return minCharacters > 0 || maxCharacters > 0;
+  }
+
+  /**
+   * @return The characters count of the text, as the characters counter shows it.
+   */
+  public int getLength(@NonNull CharSequence text) {
+    return lengthChecker == null ? text.length() : lengthChecker.getLength(text);
+  }
+
+  /**
+   * @return Whether the characters count is within the limits. Always true without limits.
+   */
+  public boolean isCharactersCountValid(@NonNull CharSequence text) {
+    if (!hasCharactersCounter()) {
+      return true;
+    }
+    int count = getLength(text);
+    return count >= minCharacters && (maxCharacters <= 0 || count <= maxCharacters);
+  }
+
+  /**
+   * @param count The characters count, see {@link #getLength(CharSequence)}.
+   * @param rtl   Whether the layout is right-to-left.
+   * @return The characters counter text, e.g. "3 / 10" or "3 / 5+".
+   */
+  @NonNull
+  public String getCharactersCounterText(int count, boolean rtl) {
+    if (charactersCounterText != null && charactersCounterTextCount == count && charactersCounterTextRtl == rtl) {
+      return charactersCounterText;
+    }
+    String text;
+    if (minCharacters <= 0) {
+      text = rtl ? maxCharacters + " / " + count : count + " / " + maxCharacters;
+    } else if (maxCharacters <= 0) {
+      text = rtl ? "+" + minCharacters + " / " + count : count + " / " + minCharacters + "+";
+    } else {
+      text = rtl ? maxCharacters + "-" + minCharacters + " / " + count : count + " / " + minCharacters + "-" + maxCharacters;
+    }
+    charactersCounterText = text;
+    charactersCounterTextCount = count;
+    charactersCounterTextRtl = rtl;
+    return text;
+  }
+
+  public boolean hasValidators() {
+    return validators != null && !validators.isEmpty();
+  }
+
+  /**
+   * @return This instance, for easy chaining
+   */
+  public METFieldModel addValidator(@NonNull METValidator validator) {
+    if (validators == null) {
+      validators = new ArrayList<>();
+    }
+    validators.add(validator);
+    return this;
+  }
+
+  /**
+   * Replace the validators with the given ones.
+   */
+  public void setValidators(@Nullable List<METValidator> validators) {
+    if (this.validators != null) {
+      this.validators.clear();
+      if (validators != null) {
+        this.validators.addAll(validators);
+      }
+    } else if (validators != null && !validators.isEmpty()) {
+      this.validators = new ArrayList<>(validators);
+    }
+  }
+
+  public void clearValidators() {
+    if (validators != null) {
+      validators.clear();
+    }
+  }
+
+  /**
+   * @return The validators, or null if none was ever added.
+   */
+  @Nullable
+  public List<METValidator> getValidators() {
+    return validators;
+  }
+
+  @NonNull
+  public METValidationPolicy getValidationPolicy() {
+    return validationPolicy;
+  }
+
+  /**
+   * @param policy The policy, or null for {@link METValidationPolicy#SEQUENTIAL} (the default)
+   */
+  public void setValidationPolicy(@Nullable METValidationPolicy policy) {
+    this.validationPolicy = policy == null ? METValidationPolicy.SEQUENTIAL : policy;
+  }
+
+  /**
+   * Check the validators against the text.
+   *
+   * @return The failing result to report, or {@link METValidationResult#VALID} if all pass or there are no validators.
+   */
+  @NonNull
+  public METValidationResult validate(@NonNull CharSequence text) {
+    if (!hasValidators()) {
+      return METValidationResult.VALID;
+    }
+    return validationPolicy.validate(validators, text, text.length() == 0);
+  }
+}
@@ -0,0 +1,62 @@
+package com.rengwuxian.materialedittext.validation;
+
+import android.support.annotation.NonNull;
+
+import java.util.List;
+
+/**
+ * Decides in which order a field's validators are run.
+ * <p/>
+ * A policy may run the validators in any order and skip some of them, as long as the error it reports is the one its priorities call for.
+ * It runs each one through {@link #run(METValidator, CharSequence, boolean)}, so that the runs are counted.
+ */
+public abstract class METValidationPolicy {
+
+  /**
+   * Runs the validators in the declared order and stops at the first failure. This is the default.
+   */
+  public static final METValidationPolicy SEQUENTIAL = new METValidationPolicy() {
+    @NonNull
+    @Override
+    public METValidationResult validate(@NonNull List<METValidator> validators, @NonNull CharSequence text, boolean isEmpty) {
+      for (int i = 0, size = validators.size(); i < size; i++) {
+        METValidationResult result = run(validators.get(i), text, isEmpty);
+        if (!result.isValid()) {
+          return result;
+        }
+      }
+      return METValidationResult.VALID;
+    }
+  };
+
+  /**
+   * Validator runs on all threads, see {@link #getRunCount()}.
+   */
+  private static int runCount;
+
+  /**
+   * Run one validator and count the run.
+   */
+  @NonNull
+  protected static METValidationResult run(@NonNull METValidator validator, @NonNull CharSequence text, boolean isEmpty) {
+    runCount++;
+    return validator.validate(text, isEmpty);
+  }
+
+  /**
+   * @return The validators run by the policies so far, on all threads. The count isn't synchronized: take the difference around a check on
+   * one thread, e.g. to assert how many validators a keystroke runs.
+   */
+  public static int getRunCount() {
+    return runCount;
+  }
+
+  /**
+   * @param validators The validators in declared order. Cannot be null, but may be empty.
+   * @param text       The text to check. Cannot be null, but may be empty.
+   * @param isEmpty    Boolean indicating whether or not the text param is empty
+   * @return The failing result to report, or {@link METValidationResult#VALID}
+   */
+  @NonNull
+  public abstract METValidationResult validate(@NonNull List<METValidator> validators, @NonNull CharSequence text, boolean isEmpty);
+}
@@ -0,0 +1,66 @@
+package com.rengwuxian.materialedittext.validation;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+/**
+ * Immutable outcome of a validation check.
+ * <p/>
+ * A result holds no reference to the validator or to the checked text, so it can be cached, shared and passed between threads freely.
+ */
+public final class METValidationResult {
+
+  /**
+   * Code used when a validator doesn't provide one.
+   */
+  public static final int NO_CODE = 0;
+
+  /**
+   * The shared result for every passing check.
+   */
+  public static final METValidationResult VALID = new METValidationResult(true, null, NO_CODE);
+
+  private final boolean valid;
+  private final String errorMessage;
+  private final int code;
+
+  private METValidationResult(boolean valid, String errorMessage, int code) {
+    this.valid = valid;
+    this.errorMessage = errorMessage;
+    this.code = code;
+  }
+
+  @NonNull
+  public static METValidationResult invalid(@NonNull String errorMessage) {
+    return new METValidationResult(false, errorMessage, NO_CODE);
+  }
+
+  /**
+   * @param code An app-defined code to tell failures apart without comparing messages.
+   */
+  @NonNull
+  public static METValidationResult invalid(@NonNull String errorMessage, int code) {
+    return new METValidationResult(false, errorMessage, code);
+  }
+
+  public boolean isValid() {
+    return valid;
+  }
+
+  /**
+   * @return The message to display, or null if the result is valid.
+   */
+  @Nullable
+  public String getErrorMessage() {
+    return errorMessage;
+  }
+
+  public int getCode() {
+    return code;
+  }
+
+  @Override
+  public String toString() {
+    return valid ? "METValidationResult{valid}" : "METValidationResult{invalid, code=" + code + ", errorMessage=" + errorMessage + "}";
+  }
+}
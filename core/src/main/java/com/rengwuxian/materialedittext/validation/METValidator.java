@@ -0,0 +1,74 @@
+package com.rengwuxian.materialedittext.validation;
+
+import android.support.annotation.NonNull;
+
+/**
+ * Base Validator class to either implement or inherit from for custom validation
+ * <p/>
+ * The views only call {@link #validate(CharSequence, boolean)}. A validator that doesn't touch {@link #errorMessage} from its checks keeps no
+ * per-call state, so a single instance can be shared by any number of fields and run on any thread.
+ */
+public abstract class METValidator {
+
+  /**
+   * Error message that the view will display if validation fails.
+   * <p/>
+   * This is protected, so you can change this dynamically in your {@link #isValid(CharSequence, boolean)}
+   * implementation. If necessary, you can also interact with this via its getter and setter.
+   * <p/>
+   * NOTE: changing it while checking makes the validator stateful, so such an instance must not be shared across threads.
+   * Override {@link #validate(CharSequence, boolean)} and return a {@link METValidationResult} with the dynamic message instead.
+   */
+  protected String errorMessage;
+
+  /**
+   * Last failing result, reused while {@link #errorMessage} stays the same.
+   */
+  private METValidationResult invalidResult;
+
+  public METValidator(@NonNull String errorMessage) {
+    this.errorMessage = errorMessage;
+  }
+
+  public void setErrorMessage(@NonNull String errorMessage) {
+    this.errorMessage = errorMessage;
+  }
+
+  @NonNull
+  public String getErrorMessage() {
+    return this.errorMessage;
+  }
+
+  /**
+   * Abstract method to implement your own validation checking.
+   *
+   * @param text    The CharSequence representation of the text in the EditText field. Cannot be null, but may be empty.
+   * @param isEmpty Boolean indicating whether or not the text param is empty
+   * @return True if valid, false if not
+   */
+  public abstract boolean isValid(@NonNull CharSequence text, boolean isEmpty);
+
+  /**
+   * Check the text and return an immutable result.
+   * <p/>
+   * The default implementation delegates to {@link #isValid(CharSequence, boolean)} and reports {@link #getErrorMessage()} on failure.
+   *
+   * @param text    The CharSequence representation of the text in the EditText field. Cannot be null, but may be empty.
+   * @param isEmpty Boolean indicating whether or not the text param is empty
+   * @return {@link METValidationResult#VALID} if valid, a failing result otherwise
+   */
+  @NonNull
+  public METValidationResult validate(@NonNull CharSequence text, boolean isEmpty) {
+    if (isValid(text, isEmpty)) {
+      return METValidationResult.VALID;
+    }
+    String message = errorMessage;
+    METValidationResult result = invalidResult;
+    if (result == null || result.getErrorMessage() != message) {
+      result = METValidationResult.invalid(message);
+      invalidResult = result;
+    }
+    return result;
+  }
+
+}
@@ -0,0 +1,64 @@
+package com.rengwuxian.materialedittext.validation;
+
+import android.support.annotation.NonNull;
+
+/**
+ * Validator for whole numbers within an inclusive range. An optional leading sign is accepted, grouping separators are not.
+ * <p/>
+ * The number is parsed while scanning, without creating a String.
+ */
+public class NumberRangeValidator extends METValidator {
+
+  private final long min;
+  private final long max;
+
+  public NumberRangeValidator(@NonNull String errorMessage, long min, long max) {
+    super(errorMessage);
+    if (min > max) {
+      throw new IllegalArgumentException("min (" + min + ") must not be greater than max (" + max + ")");
+    }
+    this.min = min;
+    this.max = max;
+  }
+
+  public long getMin() {
+    return min;
+  }
+
+  public long getMax() {
+    return max;
+  }
+
+  @Override
+  public boolean isValid(@NonNull CharSequence text, boolean isEmpty) {
+    int length = text.length();
+    if (length == 0) {
+      return false;
+    }
+    int i = 0;
+    boolean negative = false;
+    char first = text.charAt(0);
+    if (first == '-' || first == '+') {
+      negative = first == '-';
+      i++;
+    }
+    if (i == length) {
+      return false;
+    }
+    // accumulate the magnitude; anything beyond Long.MAX_VALUE is out of every range
+    long magnitude = 0;
+    for (; i < length; i++) {
+      char c = text.charAt(i);
+      if (!FormatScanner.isDigit(c)) {
+        return false;
+      }
+      int digit = c - '0';
+      if (magnitude > (Long.MAX_VALUE - digit) / 10) {
+        return false;
+      }
+      magnitude = magnitude * 10 + digit;
+    }
+    long value = negative ? -magnitude : magnitude;
+    return value >= min && value <= max;
+  }
+}
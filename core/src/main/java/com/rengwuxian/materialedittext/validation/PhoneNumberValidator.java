@@ -0,0 +1,33 @@
+package com.rengwuxian.materialedittext.validation;
+
+import android.support.annotation.NonNull;
+
+/**
+ * Validator for phone numbers in E.164 format: a plus sign followed by up to 15 digits, the first of which isn't 0.
+ * <p/>
+ * Equivalent to the regex {@code \+[1-9]\d{1,14}}, but the text is scanned once and nothing is allocated.
+ */
+public class PhoneNumberValidator extends METValidator {
+
+  private static final int MIN_DIGITS = 2;
+  private static final int MAX_DIGITS = 15;
+
+  public PhoneNumberValidator(@NonNull String errorMessage) {
+    super(errorMessage);
+  }
+
+  @Override
+  public boolean isValid(@NonNull CharSequence text, boolean isEmpty) {
+    int length = text.length();
+    int digits = length - 1;
+    if (digits < MIN_DIGITS || digits > MAX_DIGITS || text.charAt(0) != '+' || text.charAt(1) == '0') {
+      return false;
+    }
+    for (int i = 1; i < length; i++) {
+      if (!FormatScanner.isDigit(text.charAt(i))) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
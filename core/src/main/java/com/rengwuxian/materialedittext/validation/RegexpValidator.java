@@ -9,7 +9,7 @@ import java.util.regex.Pattern;
  */
 public class RegexpValidator extends METValidator {
 
-  private Pattern pattern;
+  private final Pattern pattern;
 
   public RegexpValidator(@NonNull String errorMessage, @NonNull String regex) {
     super(errorMessage);
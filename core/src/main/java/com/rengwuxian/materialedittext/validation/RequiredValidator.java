@@ -0,0 +1,18 @@
+package com.rengwuxian.materialedittext.validation;
+
+import android.support.annotation.NonNull;
+
+/**
+ * Validator that fails on empty text.
+ */
+public class RequiredValidator extends METValidator {
+
+  public RequiredValidator(@NonNull String errorMessage) {
+    super(errorMessage);
+  }
+
+  @Override
+  public boolean isValid(@NonNull CharSequence text, boolean isEmpty) {
+    return !isEmpty;
+  }
+}
@@ -0,0 +1,76 @@
+package com.rengwuxian.materialedittext.validation;
+
+import android.support.annotation.NonNull;
+
+/**
+ * Validator for absolute http, https and ftp URLs, without regexes.
+ * <p/>
+ * The host must be a host name with an alphabetic top-level domain, an IPv4 address or "localhost", optionally followed by a port. The
+ * path, query and fragment may contain anything but whitespace and control characters. The text is scanned once and nothing is
+ * allocated.
+ */
+public class UrlValidator extends METValidator {
+
+  private static final String[] SCHEMES = {"http://", "https://", "ftp://"};
+
+  public UrlValidator(@NonNull String errorMessage) {
+    super(errorMessage);
+  }
+
+  @Override
+  public boolean isValid(@NonNull CharSequence text, boolean isEmpty) {
+    int length = text.length();
+    int hostStart = 0;
+    for (String scheme : SCHEMES) {
+      if (FormatScanner.startsWithIgnoreCase(text, 0, scheme)) {
+        hostStart = scheme.length();
+        break;
+      }
+    }
+    if (hostStart == 0) {
+      return false;
+    }
+
+    int hostEnd = hostStart;
+    while (hostEnd < length) {
+      char c = text.charAt(hostEnd);
+      if (c == ':' || c == '/' || c == '?' || c == '#') {
+        break;
+      }
+      hostEnd++;
+    }
+    if (!FormatScanner.isHostName(text, hostStart, hostEnd) && !FormatScanner.isIpv4(text, hostStart, hostEnd)
+        && !(hostEnd - hostStart == 9 && FormatScanner.startsWithIgnoreCase(text, hostStart, "localhost"))) {
+      return false;
+    }
+
+    int i = hostEnd;
+    if (i < length && text.charAt(i) == ':') {
+      int port = 0;
+      int digits = 0;
+      for (i++; i < length && FormatScanner.isDigit(text.charAt(i)); i++) {
+        port = port * 10 + (text.charAt(i) - '0');
+        if (++digits > 5 || port > 65535) {
+          return false;
+        }
+      }
+      if (digits == 0) {
+        return false;
+      }
+      if (i < length) {
+        char c = text.charAt(i);
+        if (c != '/' && c != '?' && c != '#') {
+          return false;
+        }
+      }
+    }
+
+    for (; i < length; i++) {
+      char c = text.charAt(i);
+      if (Character.isWhitespace(c) || Character.isISOControl(c)) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
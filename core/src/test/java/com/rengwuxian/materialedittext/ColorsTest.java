@@ -0,0 +1,27 @@
+package com.rengwuxian.materialedittext;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests for the color derivation.
+ */
+public class ColorsTest extends TestCase {
+
+    public void testIsLight() {
+        assertTrue(Colors.isLight(0xffffffff));
+        assertTrue(Colors.isLight(0xffffeb3b));
+        assertFalse(Colors.isLight(0xff000000));
+        assertFalse(Colors.isLight(0xff3f51b5));
+    }
+
+    public void testWithAlpha() {
+        assertEquals(0x44123456, Colors.withAlpha(0xff123456, 0x44));
+        assertEquals(0xff123456, Colors.withAlpha(0x00123456, 0xff));
+    }
+
+    public void testBlend() {
+        assertEquals(0x44000000, Colors.blend(0x44000000, 0xff3f51b5, 0));
+        assertEquals(0xff3f51b5, Colors.blend(0x44000000, 0xff3f51b5, 1));
+        assertEquals(0x80808080, Colors.blend(0x00000000, 0xffffffff, .5f + .5f / 255));
+    }
+}
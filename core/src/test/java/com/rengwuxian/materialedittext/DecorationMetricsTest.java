@@ -0,0 +1,43 @@
+package com.rengwuxian.materialedittext;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests for the bottom lines and padding math.
+ */
+public class DecorationMetricsTest extends TestCase {
+
+    public void testMinBottomLines() {
+        assertEquals(0, DecorationMetrics.getMinBottomLines(false, 0, false));
+        assertEquals(1, DecorationMetrics.getMinBottomLines(false, 0, true));
+        assertEquals(3, DecorationMetrics.getMinBottomLines(false, 3, false));
+        assertEquals(1, DecorationMetrics.getMinBottomLines(true, 0, false));
+        assertEquals(2, DecorationMetrics.getMinBottomLines(true, 2, true));
+    }
+
+    public void testBottomLinesGrowWithTheText() {
+        assertEquals(1, DecorationMetrics.getBottomLines(false, 1, 0, 1));
+        assertEquals(4, DecorationMetrics.getBottomLines(false, 1, 0, 4));
+        assertEquals(2, DecorationMetrics.getBottomLines(false, 2, 2, 1));
+    }
+
+    public void testFixedBottomLinesIgnoreTheText() {
+        assertEquals(2, DecorationMetrics.getBottomLines(true, 2, 2, 5));
+        assertEquals(2, DecorationMetrics.getBottomLines(true, 2, 2, 1));
+    }
+
+    public void testBottomTextWidth() {
+        assertEquals(200 - 10 - 12 - 30 - 40, DecorationMetrics.getBottomTextWidth(200, 10, 12, 30, 40));
+        assertEquals(0, DecorationMetrics.getBottomEllipsisWidth(false, 4, 8));
+        assertEquals(4 * 5 + 8, DecorationMetrics.getBottomEllipsisWidth(true, 4, 8));
+    }
+
+    public void testExtraPaddings() {
+        assertEquals(36, DecorationMetrics.getExtraPaddingTop(true, 24, 12));
+        assertEquals(12, DecorationMetrics.getExtraPaddingTop(false, 24, 12));
+        assertEquals((int) (20f * 1.5f) + 8 * 2, DecorationMetrics.getExtraPaddingBottom(20f, 1.5f, false, 8));
+        assertEquals(8, DecorationMetrics.getExtraPaddingBottom(20f, 0, true, 8));
+        assertEquals(0, DecorationMetrics.getExtraPaddingIcon(false, 96, 32));
+        assertEquals(128, DecorationMetrics.getExtraPaddingIcon(true, 96, 32));
+    }
+}
@@ -0,0 +1,114 @@
+package com.rengwuxian.materialedittext.validation;
+
+import junit.framework.TestCase;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tests for {@link AdaptiveValidationPolicy}.
+ */
+public class AdaptiveValidationPolicyTest extends TestCase {
+
+    private static final int TRAINING_PASSES = 64;
+
+    private AdaptiveValidationPolicy policy;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        policy = new AdaptiveValidationPolicy();
+    }
+
+    public void testAllValidReturnsValid() {
+        CountingValidator first = new CountingValidator("First", false, 0);
+        CountingValidator second = new CountingValidator("Second", false, 0);
+        assertSame(METValidationResult.VALID, validate(Arrays.<METValidator>asList(first, second), "abc"));
+        assertEquals(1, first.runs);
+        assertEquals(1, second.runs);
+    }
+
+    public void testSkipsValidatorsAddedAfterAFailureOfTheSamePriority() {
+        CountingValidator first = new CountingValidator("First", true, 0);
+        CountingValidator second = new CountingValidator("Second", true, 0);
+        CountingValidator third = new CountingValidator("Third", false, 0);
+        assertEquals("First", validate(Arrays.<METValidator>asList(first, second, third), "").getErrorMessage());
+        assertEquals(1, first.runs);
+        assertEquals(0, second.runs);
+        assertEquals(0, third.runs);
+    }
+
+    public void testHigherPriorityWins() {
+        CountingValidator low = new CountingValidator("Low", true, 0);
+        CountingValidator high = new CountingValidator("High", true, 0);
+        policy.setPriority(high, 1);
+        assertEquals("High", validate(Arrays.<METValidator>asList(low, high), "").getErrorMessage());
+        assertEquals(1, low.runs);
+        assertEquals(1, high.runs);
+    }
+
+    public void testDefaultPrioritiesReportTheSameErrorAsSequential() {
+        // the cheap, always failing validator is learned to run first, but the one added first must still win
+        CountingValidator format = new CountingValidator("Bad format", true, 20000);
+        CountingValidator required = new CountingValidator("Required", true, 0);
+        List<METValidator> validators = Arrays.<METValidator>asList(format, required);
+        String expected = METValidationPolicy.SEQUENTIAL.validate(validators, "", true).getErrorMessage();
+        assertEquals("Bad format", expected);
+        for (int i = 0; i < TRAINING_PASSES; i++) {
+            assertEquals(expected, validate(validators, "").getErrorMessage());
+        }
+    }
+
+    public void testReorderSkipsValidatorsThatCannotWin() {
+        CountingValidator slow = new CountingValidator("Slow", false, 20000);
+        CountingValidator fast = new CountingValidator("Fast", true, 0);
+        policy.setPriority(slow, -1);
+        List<METValidator> validators = Arrays.<METValidator>asList(slow, fast);
+        for (int i = 0; i < TRAINING_PASSES; i++) {
+            assertEquals("Fast", validate(validators, "").getErrorMessage());
+        }
+        slow.runs = 0;
+        fast.runs = 0;
+        assertEquals("Fast", validate(validators, "").getErrorMessage());
+        assertEquals(0, slow.runs);
+        assertEquals(1, fast.runs);
+    }
+
+    public void testResetKeepsPriorities() {
+        CountingValidator validator = new CountingValidator("Error", true, 0);
+        policy.setPriority(validator, 3);
+        policy.reset();
+        assertEquals(3, policy.getPriority(validator));
+        assertEquals(0, policy.getPriority(new CountingValidator("Other", true, 0)));
+    }
+
+    private METValidationResult validate(List<METValidator> validators, String text) {
+        return policy.validate(validators, text, text.length() == 0);
+    }
+
+    /**
+     * A validator that always passes or always fails, optionally after some busy work to make it look expensive.
+     */
+    private static class CountingValidator extends METValidator {
+
+        private final boolean fails;
+        private final int work;
+        int runs;
+        int sink;
+
+        CountingValidator(String errorMessage, boolean fails, int work) {
+            super(errorMessage);
+            this.fails = fails;
+            this.work = work;
+        }
+
+        @Override
+        public boolean isValid(CharSequence text, boolean isEmpty) {
+            runs++;
+            for (int i = 0; i < work; i++) {
+                sink = sink * 31 + i;
+            }
+            return !fails;
+        }
+    }
+}
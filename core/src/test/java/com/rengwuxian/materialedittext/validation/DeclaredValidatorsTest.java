@@ -0,0 +1,156 @@
+package com.rengwuxian.materialedittext.validation;
+
+import junit.framework.TestCase;
+
+import java.io.File;
+import java.util.List;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+/**
+ * Tests for {@link DeclaredValidators}.
+ */
+public class DeclaredValidatorsTest extends TestCase {
+
+    public void testNothingDeclared() {
+        assertTrue(obtain(false, null, 0, 0, DeclaredValidators.FORMAT_NONE).isEmpty());
+    }
+
+    public void testOrderAndMessages() {
+        List<METValidator> validators = obtain(true, "[a-z]+", 2, 8, DeclaredValidators.FORMAT_EMAIL);
+        assertEquals(4, validators.size());
+        assertTrue(rule(validators.get(0)) instanceof RequiredValidator);
+        assertEquals("Required", validators.get(0).getErrorMessage());
+        assertTrue(rule(validators.get(1)) instanceof LengthValidator);
+        assertEquals("Length", validators.get(1).getErrorMessage());
+        assertEquals(2, ((LengthValidator) rule(validators.get(1))).getMinLength());
+        assertEquals(8, ((LengthValidator) rule(validators.get(1))).getMaxLength());
+        assertTrue(rule(validators.get(2)) instanceof EmailValidator);
+        assertEquals("Format", validators.get(2).getErrorMessage());
+        assertTrue(rule(validators.get(3)) instanceof RegexpValidator);
+        assertEquals("Regex", validators.get(3).getErrorMessage());
+    }
+
+    public void testRequiredFieldRejectsEmptyText() {
+        List<METValidator> validators = obtain(true, null, 2, 0, DeclaredValidators.FORMAT_EMAIL);
+        METValidationResult result = METValidationPolicy.SEQUENTIAL.validate(validators, "", true);
+        assertEquals("Required", result.getErrorMessage());
+    }
+
+    public void testOptionalFieldAcceptsEmptyText() {
+        List<METValidator> validators = obtain(false, "[a-z]+", 2, 0, DeclaredValidators.FORMAT_EMAIL);
+        assertTrue(METValidationPolicy.SEQUENTIAL.validate(validators, "", true).isValid());
+        assertEquals("Length", METValidationPolicy.SEQUENTIAL.validate(validators, "a", false).getErrorMessage());
+        assertEquals("Format", METValidationPolicy.SEQUENTIAL.validate(validators, "ab", false).getErrorMessage());
+    }
+
+    public void testOptionalEmailAcceptsEmptyText() {
+        METValidator validator = obtain(false, null, 0, 0, DeclaredValidators.FORMAT_EMAIL).get(0);
+        assertTrue(validator.validate("", true).isValid());
+        assertTrue(validator.isValid("", true));
+        assertTrue(validator.validate("john@example.com", false).isValid());
+        assertFalse(validator.validate("john", false).isValid());
+    }
+
+    public void testOnlyMaxLength() {
+        List<METValidator> validators = obtain(false, null, 0, 3, DeclaredValidators.FORMAT_NONE);
+        assertEquals(1, validators.size());
+        assertTrue(validators.get(0).validate("abc", false).isValid());
+        assertFalse(validators.get(0).validate("abcd", false).isValid());
+    }
+
+    public void testFormats() {
+        assertFormat(DeclaredValidators.FORMAT_EMAIL, EmailValidator.class);
+        assertFormat(DeclaredValidators.FORMAT_URL, UrlValidator.class);
+        assertFormat(DeclaredValidators.FORMAT_CREDIT_CARD, LuhnValidator.class);
+        assertFormat(DeclaredValidators.FORMAT_IBAN, IbanValidator.class);
+        assertFormat(DeclaredValidators.FORMAT_PHONE, PhoneNumberValidator.class);
+    }
+
+    public void testRegexMatchesWholeText() {
+        METValidator validator = obtain(false, "[0-9]{3}", 0, 0, DeclaredValidators.FORMAT_NONE).get(0);
+        assertTrue(validator.validate("123", false).isValid());
+        assertFalse(validator.validate("1234", false).isValid());
+    }
+
+    public void testValidatorsAreSharedAndImmutable() {
+        List<METValidator> first = obtain(true, "[a-z]+", 0, 0, DeclaredValidators.FORMAT_NONE);
+        List<METValidator> second = obtain(true, "[a-z]+", 0, 0, DeclaredValidators.FORMAT_NONE);
+        assertSame(first, second);
+        try {
+            first.get(0).setErrorMessage("Changed");
+            fail();
+        } catch (UnsupportedOperationException expected) {
+        }
+        assertEquals("Required", second.get(0).getErrorMessage());
+        try {
+            first.add(new RequiredValidator("Other"));
+            fail();
+        } catch (UnsupportedOperationException expected) {
+        }
+    }
+
+    public void testCacheIsBounded() {
+        for (int i = 0; i < DeclaredValidators.MAX_CACHED_DECLARATIONS * 2; i++) {
+            obtain(false, "pattern" + i, 0, 0, DeclaredValidators.FORMAT_NONE);
+        }
+        assertEquals(DeclaredValidators.MAX_CACHED_DECLARATIONS, DeclaredValidators.cachedDeclarationCount());
+    }
+
+    /**
+     * The met_format enum values in attrs.xml are the FORMAT_* constants.
+     */
+    public void testFormatAttributeValues() throws Exception {
+        File attrs = new File("../library/src/main/res/values/attrs.xml");
+        if (!attrs.exists()) {
+            attrs = new File("library/src/main/res/values/attrs.xml");
+        }
+        Document document = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(attrs);
+        NodeList attrNodes = document.getElementsByTagName("attr");
+        Element format = null;
+        for (int i = 0; i < attrNodes.getLength(); i++) {
+            Element attr = (Element) attrNodes.item(i);
+            if ("met_format".equals(attr.getAttribute("name")) && attr.getElementsByTagName("enum").getLength() > 0) {
+                format = attr;
+            }
+        }
+        assertNotNull("met_format not declared", format);
+        NodeList enums = format.getElementsByTagName("enum");
+        assertEquals(6, enums.getLength());
+        assertEnum(enums, "none", DeclaredValidators.FORMAT_NONE);
+        assertEnum(enums, "email", DeclaredValidators.FORMAT_EMAIL);
+        assertEnum(enums, "url", DeclaredValidators.FORMAT_URL);
+        assertEnum(enums, "creditCard", DeclaredValidators.FORMAT_CREDIT_CARD);
+        assertEnum(enums, "iban", DeclaredValidators.FORMAT_IBAN);
+        assertEnum(enums, "phone", DeclaredValidators.FORMAT_PHONE);
+    }
+
+    private static void assertFormat(int format, Class<? extends METValidator> type) {
+        List<METValidator> validators = obtain(false, null, 0, 0, format);
+        assertEquals(1, validators.size());
+        assertSame(type, rule(validators.get(0)).getClass());
+    }
+
+    private static METValidator rule(METValidator validator) {
+        return ((DeclaredValidators.Declared) validator).getRule();
+    }
+
+    private static void assertEnum(NodeList enums, String name, int value) {
+        for (int i = 0; i < enums.getLength(); i++) {
+            Element element = (Element) enums.item(i);
+            if (name.equals(element.getAttribute("name"))) {
+                assertEquals(name, value, Integer.parseInt(element.getAttribute("value")));
+                return;
+            }
+        }
+        fail("no enum " + name);
+    }
+
+    private static List<METValidator> obtain(boolean required, String regex, int minLength, int maxLength, int format) {
+        return DeclaredValidators.obtain(required, "Required", regex, "Regex", minLength, maxLength, "Length", format, "Format");
+    }
+}
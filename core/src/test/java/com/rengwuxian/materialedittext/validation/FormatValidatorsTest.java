@@ -0,0 +1,92 @@
+package com.rengwuxian.materialedittext.validation;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests for the built-in format validators.
+ */
+public class FormatValidatorsTest extends TestCase {
+
+    private static boolean check(METValidator validator, CharSequence text) {
+        return validator.validate(text, text.length() == 0).isValid();
+    }
+
+    public void testEmail() {
+        EmailValidator validator = new EmailValidator("Invalid email");
+        assertTrue(check(validator, "john.doe@example.com"));
+        assertTrue(check(validator, "a+tag@mail.example.co.uk"));
+        assertFalse(check(validator, ""));
+        assertFalse(check(validator, "john.doe"));
+        assertFalse(check(validator, ".john@example.com"));
+        assertFalse(check(validator, "john..doe@example.com"));
+        assertFalse(check(validator, "john@example"));
+        assertFalse(check(validator, "john@-example.com"));
+        assertFalse(check(validator, "john@example.c0m"));
+        assertFalse(check(validator, "john@doe@example.com"));
+    }
+
+    public void testUrl() {
+        UrlValidator validator = new UrlValidator("Invalid URL");
+        assertTrue(check(validator, "https://example.com"));
+        assertTrue(check(validator, "HTTP://www.example.com:8080/path?q=1#top"));
+        assertTrue(check(validator, "http://192.168.0.1/"));
+        assertTrue(check(validator, "http://localhost:3000"));
+        assertFalse(check(validator, "example.com"));
+        assertFalse(check(validator, "https://"));
+        assertFalse(check(validator, "https://example.com:99999"));
+        assertFalse(check(validator, "http://a.com:80abc"));
+        assertFalse(check(validator, "http://a.com:8080x/y"));
+        assertTrue(check(validator, "http://a.com:8080/y"));
+        assertTrue(check(validator, "http://a.com:8080?q=1"));
+        assertTrue(check(validator, "http://a.com:8080#top"));
+        assertFalse(check(validator, "https://example.com/a b"));
+        assertFalse(check(validator, "mailto:john@example.com"));
+    }
+
+    public void testLuhn() {
+        LuhnValidator validator = new LuhnValidator("Invalid card number");
+        assertTrue(check(validator, "4111111111111111"));
+        assertTrue(check(validator, "4111 1111 1111 1111"));
+        assertTrue(check(validator, "5500-0000-0000-0004"));
+        assertFalse(check(validator, "4111111111111112"));
+        assertFalse(check(validator, "4111a111111111111"));
+        assertFalse(check(validator, "0000000"));
+        assertFalse(check(validator, " 4111111111111111"));
+        assertFalse(check(validator, "4111111111111111-"));
+        assertFalse(check(validator, " -4111111111111111- "));
+        assertFalse(check(validator, "4111--1111 1111 1111"));
+        assertFalse(check(validator, "4111 -1111 1111 1111"));
+        assertFalse(check(validator, "4111  1111 1111 1111"));
+    }
+
+    public void testIban() {
+        IbanValidator validator = new IbanValidator("Invalid IBAN");
+        assertTrue(check(validator, "GB82WEST12345698765432"));
+        assertTrue(check(validator, "DE89 3704 0044 0532 0130 00"));
+        assertTrue(check(validator, "gb82west12345698765432"));
+        assertFalse(check(validator, "GB82WEST12345698765433"));
+        assertFalse(check(validator, "GB82"));
+        assertFalse(check(validator, "1282WEST12345698765432"));
+    }
+
+    public void testPhoneNumber() {
+        PhoneNumberValidator validator = new PhoneNumberValidator("Invalid phone number");
+        assertTrue(check(validator, "+14155552671"));
+        assertTrue(check(validator, "+861012345678"));
+        assertFalse(check(validator, "14155552671"));
+        assertFalse(check(validator, "+04155552671"));
+        assertFalse(check(validator, "+1415555267123456"));
+        assertFalse(check(validator, "+1 415 555 2671"));
+    }
+
+    public void testNumberRange() {
+        NumberRangeValidator validator = new NumberRangeValidator("Out of range", -10, 100);
+        assertTrue(check(validator, "0"));
+        assertTrue(check(validator, "-10"));
+        assertTrue(check(validator, "+100"));
+        assertFalse(check(validator, "101"));
+        assertFalse(check(validator, "-"));
+        assertFalse(check(validator, "1.5"));
+        assertFalse(check(validator, "99999999999999999999999"));
+    }
+}
@@ -0,0 +1,85 @@
+package com.rengwuxian.materialedittext.validation;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests for {@link METFieldModel}.
+ */
+public class METFieldModelTest extends TestCase {
+
+    private METFieldModel model;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        model = new METFieldModel();
+    }
+
+    public void testCharactersCountWithoutLimitsIsValid() {
+        assertFalse(model.hasCharactersCounter());
+        assertTrue(model.isCharactersCountValid(""));
+        assertTrue(model.isCharactersCountValid("any text"));
+    }
+
+    public void testCharactersCountLimits() {
+        model.setMinCharacters(2);
+        model.setMaxCharacters(4);
+        assertFalse(model.isCharactersCountValid("a"));
+        assertTrue(model.isCharactersCountValid("ab"));
+        assertTrue(model.isCharactersCountValid("abcd"));
+        assertFalse(model.isCharactersCountValid("abcde"));
+    }
+
+    public void testLengthChecker() {
+        model.setMaxCharacters(2);
+        model.setLengthChecker(new METLengthChecker() {
+            @Override
+            public int getLength(CharSequence text) {
+                return text.toString().trim().length();
+            }
+        });
+        assertEquals(2, model.getLength("  ab  "));
+        assertTrue(model.isCharactersCountValid("  ab  "));
+    }
+
+    public void testCharactersCounterText() {
+        model.setMaxCharacters(10);
+        assertEquals("3 / 10", model.getCharactersCounterText(3, false));
+        assertEquals("10 / 3", model.getCharactersCounterText(3, true));
+        model.setMinCharacters(5);
+        assertEquals("3 / 5-10", model.getCharactersCounterText(3, false));
+        assertEquals("10-5 / 3", model.getCharactersCounterText(3, true));
+        model.setMaxCharacters(0);
+        assertEquals("3 / 5+", model.getCharactersCounterText(3, false));
+        assertEquals("+5 / 3", model.getCharactersCounterText(3, true));
+    }
+
+    public void testCharactersCounterTextIsReusedForTheSameCount() {
+        model.setMaxCharacters(10);
+        String text = model.getCharactersCounterText(3, false);
+        assertSame(text, model.getCharactersCounterText(3, false));
+        assertEquals("4 / 10", model.getCharactersCounterText(4, false));
+    }
+
+    public void testValidateReportsFirstFailure() {
+        assertTrue(model.validate("").isValid());
+        model.addValidator(new RequiredValidator("Required"))
+            .addValidator(new EmailValidator("Invalid email"));
+        assertEquals("Required", model.validate("").getErrorMessage());
+        assertEquals("Invalid email", model.validate("john").getErrorMessage());
+        assertTrue(model.validate("john@example.com").isValid());
+        model.clearValidators();
+        assertTrue(model.validate("").isValid());
+    }
+
+    public void testValidateCountsEachValidatorRun() {
+        model.addValidator(new RequiredValidator("Required"))
+            .addValidator(new EmailValidator("Invalid email"));
+        int runCount = METValidationPolicy.getRunCount();
+        model.validate("john@example.com");
+        assertEquals(2, METValidationPolicy.getRunCount() - runCount);
+        runCount = METValidationPolicy.getRunCount();
+        model.validate("");
+        assertEquals(1, METValidationPolicy.getRunCount() - runCount);
+    }
+}
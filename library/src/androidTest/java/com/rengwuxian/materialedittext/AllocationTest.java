@@ -0,0 +1,115 @@
+package com.rengwuxian.materialedittext;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.os.Debug;
+import android.support.v7.widget.AppCompatEditText;
+import android.test.AndroidTestCase;
+import android.text.Editable;
+import android.view.View;
+import android.widget.EditText;
+
+import com.rengwuxian.materialedittext.validation.LengthValidator;
+import com.rengwuxian.materialedittext.validation.RequiredValidator;
+
+/**
+ * Guards the draw and keystroke paths against allocations, counted with {@link Debug#startAllocCounting()}.
+ * <p/>
+ * An AppCompatEditText, the widget's superclass, doing the same work is the baseline, so the framework's own allocations (e.g. in the
+ * text layout or the cursor) don't fail the tests on some API levels; any allocation the decorations add does. Both fields are focused,
+ * and the text is longer than the max characters, so the clear button and the counter are drawn. Validators of the app are not covered:
+ * a RegexpValidator allocates a Matcher per check.
+ */
+@SuppressWarnings("deprecation")
+public class AllocationTest extends AndroidTestCase {
+
+    private static final int WARMUP = 20;
+    private static final int ITERATIONS = 100;
+    private static final String TEXT = "Some text";
+
+    private MaterialEditText editTextUnderTest;
+    private EditText baseline;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        editTextUnderTest = new MaterialEditText(getContext());
+        editTextUnderTest.beginUpdate();
+        editTextUnderTest.setFloatingLabel(MaterialEditText.FLOATING_LABEL_HIGHLIGHT);
+        editTextUnderTest.setFloatingLabelText("Label");
+        // below the text length, so the counter is drawn
+        editTextUnderTest.setMaxCharacters(TEXT.length() - 2);
+        editTextUnderTest.setHelperText("Helper text");
+        editTextUnderTest.setHelperTextAlwaysShown(true);
+        editTextUnderTest.setShowClearButton(true);
+        editTextUnderTest.setAutoValidate(true);
+        editTextUnderTest.addValidator(new RequiredValidator("Required"));
+        editTextUnderTest.addValidator(new LengthValidator("Too long", 0, 140));
+        editTextUnderTest.endUpdate();
+        editTextUnderTest.setText(TEXT);
+        layOut(editTextUnderTest);
+
+        baseline = new AppCompatEditText(getContext());
+        baseline.setText(TEXT);
+        layOut(baseline);
+    }
+
+    public void testClearButtonAndCounterAreDrawn() {
+        assertTrue(editTextUnderTest.hasFocus());
+        assertTrue(baseline.hasFocus());
+        assertFalse(editTextUnderTest.isCharactersCountValid());
+    }
+
+    public void testDrawDoesNotAllocate() {
+        assertEquals(countDrawAllocations(baseline), countDrawAllocations(editTextUnderTest));
+    }
+
+    public void testKeystrokeDoesNotAllocate() {
+        assertEquals(countKeystrokeAllocations(baseline), countKeystrokeAllocations(editTextUnderTest));
+    }
+
+    private static void layOut(EditText view) {
+        view.requestFocus();
+        view.measure(View.MeasureSpec.makeMeasureSpec(480, View.MeasureSpec.EXACTLY), View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED));
+        view.layout(0, 0, view.getMeasuredWidth(), view.getMeasuredHeight());
+    }
+
+    private static int countDrawAllocations(EditText view) {
+        Canvas canvas = new Canvas(Bitmap.createBitmap(view.getWidth(), view.getHeight(), Bitmap.Config.ARGB_8888));
+        for (int i = 0; i < WARMUP; i++) {
+            view.draw(canvas);
+        }
+        startCounting();
+        for (int i = 0; i < ITERATIONS; i++) {
+            view.draw(canvas);
+        }
+        return stopCounting();
+    }
+
+    /**
+     * Type a char and delete it, which runs the text watchers' afterTextChanged twice.
+     */
+    private static int countKeystrokeAllocations(EditText view) {
+        Editable text = view.getText();
+        for (int i = 0; i < WARMUP; i++) {
+            text.append('a');
+            text.delete(text.length() - 1, text.length());
+        }
+        startCounting();
+        for (int i = 0; i < ITERATIONS; i++) {
+            text.append('a');
+            text.delete(text.length() - 1, text.length());
+        }
+        return stopCounting();
+    }
+
+    private static void startCounting() {
+        Debug.resetThreadAllocCount();
+        Debug.startAllocCounting();
+    }
+
+    private static int stopCounting() {
+        Debug.stopAllocCounting();
+        return Debug.getThreadAllocCount();
+    }
+}
@@ -0,0 +1,90 @@
+package com.rengwuxian.materialedittext;
+
+import android.graphics.drawable.ColorDrawable;
+import android.graphics.drawable.Drawable;
+import android.os.Build;
+import android.test.AndroidTestCase;
+import android.text.Editable;
+import android.text.TextWatcher;
+import android.view.MotionEvent;
+import android.view.View;
+import android.widget.EditText;
+
+/**
+ * Tests for {@link MaterialDecorator}.
+ */
+public class MaterialDecoratorTest extends AndroidTestCase {
+
+    private EditText editText;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        editText = new EditText(getContext());
+    }
+
+    public void testAttachDoesNotRunTheViewsWatchers() {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.JELLY_BEAN_MR2) {
+            return;
+        }
+        editText.setText("text");
+        final int[] changes = new int[1];
+        editText.addTextChangedListener(new TextWatcher() {
+            @Override
+            public void beforeTextChanged(CharSequence s, int start, int count, int after) {
+            }
+
+            @Override
+            public void onTextChanged(CharSequence s, int start, int before, int count) {
+            }
+
+            @Override
+            public void afterTextChanged(Editable s) {
+                changes[0]++;
+            }
+        });
+        MaterialDecorator.attach(editText);
+        assertEquals(0, changes[0]);
+        assertEquals("text", editText.getText().toString());
+    }
+
+    public void testDetachRestoresBackgroundAndPaddings() {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.JELLY_BEAN_MR2) {
+            return;
+        }
+        Drawable background = new ColorDrawable(0xffff0000);
+        editText.setBackground(background);
+        editText.setPadding(1, 2, 3, 4);
+        MaterialDecorator decorator = MaterialDecorator.attach(editText);
+        assertNull(editText.getBackground());
+        decorator.detach();
+        assertSame(background, editText.getBackground());
+        assertEquals(1, editText.getPaddingLeft());
+        assertEquals(2, editText.getPaddingTop());
+        assertEquals(3, editText.getPaddingRight());
+        assertEquals(4, editText.getPaddingBottom());
+    }
+
+    public void testAppTouchListenerIsKeptAndRestored() {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.JELLY_BEAN_MR2) {
+            return;
+        }
+        final int[] touches = new int[1];
+        View.OnTouchListener touchListener = new View.OnTouchListener() {
+            @Override
+            public boolean onTouch(View v, MotionEvent event) {
+                touches[0]++;
+                return true;
+            }
+        };
+        editText.setOnTouchListener(touchListener);
+        MaterialDecorator decorator = MaterialDecorator.attach(editText, null, touchListener);
+        MotionEvent event = MotionEvent.obtain(0, 0, MotionEvent.ACTION_DOWN, 1, 1, 0);
+        editText.dispatchTouchEvent(event);
+        assertEquals(1, touches[0]);
+        decorator.detach();
+        editText.dispatchTouchEvent(event);
+        assertEquals(2, touches[0]);
+        event.recycle();
+    }
+}
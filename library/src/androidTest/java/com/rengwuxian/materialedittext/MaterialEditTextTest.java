@@ -1,6 +1,10 @@
 package com.rengwuxian.materialedittext;
 
 import android.test.AndroidTestCase;
+import android.text.Editable;
+import android.text.TextWatcher;
+
+import com.rengwuxian.materialedittext.validation.RequiredValidator;
 
 /**
  * Misc tests for {@link com.rengwuxian.materialedittext.MaterialEditText}.
@@ -30,4 +34,87 @@ public class MaterialEditTextTest extends AndroidTestCase {
     public void testSetErrorWithZeroSizeDoesNotThrow() {
         editTextUnderTest.setError("Error!");
     }
+
+    public void testPaddingsAreAppliedAtEndUpdate() {
+        int paddingTop = editTextUnderTest.getPaddingTop();
+        editTextUnderTest.beginUpdate();
+        editTextUnderTest.setFloatingLabel(MaterialEditText.FLOATING_LABEL_NORMAL);
+        editTextUnderTest.setFloatingLabelTextSize(editTextUnderTest.getFloatingLabelTextSize() * 2);
+        assertEquals(paddingTop, editTextUnderTest.getPaddingTop());
+        editTextUnderTest.endUpdate();
+        assertTrue(editTextUnderTest.getPaddingTop() > paddingTop);
+    }
+
+    public void testBindAppliesStateWithoutAnimation() {
+        editTextUnderTest.setFloatingLabel(MaterialEditText.FLOATING_LABEL_NORMAL);
+        editTextUnderTest.layout(0, 0, 1000, 1000);
+        MaterialFieldState state = new MaterialFieldState();
+        state.setText("text");
+        state.setError("Error!");
+        editTextUnderTest.bind(state);
+        assertEquals("text", editTextUnderTest.getText().toString());
+        assertEquals("Error!", editTextUnderTest.getError().toString());
+        assertEquals(1f, editTextUnderTest.getFloatingLabelFraction());
+
+        editTextUnderTest.bind(new MaterialFieldState());
+        assertEquals(0, editTextUnderTest.getText().length());
+        assertNull(editTextUnderTest.getError());
+        assertEquals(0f, editTextUnderTest.getFloatingLabelFraction());
+    }
+
+    public void testBindEndsTheBottomLinesAnimationOfTheSameTarget() {
+        editTextUnderTest.layout(0, 0, 1000, 1000);
+        MaterialFieldState state = new MaterialFieldState();
+        state.setError("Error!");
+        editTextUnderTest.bind(state);
+        float bottomLines = editTextUnderTest.getCurrentBottomLines();
+        // a recycled view caught in the middle of an animation toward the same lines
+        editTextUnderTest.setCurrentBottomLines(bottomLines / 2);
+        editTextUnderTest.bind(state);
+        assertEquals(bottomLines, editTextUnderTest.getCurrentBottomLines());
+    }
+
+    public void testAddedWatcherSeesTheNewError() {
+        assertEquals("Required", getErrorSeenByWatcher().toString());
+    }
+
+    public void testAddedWatcherRunsBeforeTheValidationWhenValidatingAfterWatchers() {
+        editTextUnderTest.setValidateAfterTextWatchers(true);
+        assertNull(getErrorSeenByWatcher());
+        assertEquals("Required", editTextUnderTest.getError().toString());
+    }
+
+    /**
+     * Clear the text of a required field and return the error a watcher added by the app sees.
+     */
+    private CharSequence getErrorSeenByWatcher() {
+        editTextUnderTest.setAutoValidate(true);
+        editTextUnderTest.addValidator(new RequiredValidator("Required"));
+        editTextUnderTest.setText("a");
+        final CharSequence[] errorSeen = new CharSequence[1];
+        editTextUnderTest.addTextChangedListener(new TextWatcher() {
+            @Override
+            public void beforeTextChanged(CharSequence s, int start, int count, int after) {
+            }
+
+            @Override
+            public void onTextChanged(CharSequence s, int start, int before, int count) {
+            }
+
+            @Override
+            public void afterTextChanged(Editable s) {
+                errorSeen[0] = editTextUnderTest.getError();
+            }
+        });
+        editTextUnderTest.getText().clear();
+        return errorSeen[0];
+    }
+
+    public void testEndUpdateWithoutBeginUpdateThrows() {
+        try {
+            editTextUnderTest.endUpdate();
+            fail();
+        } catch (IllegalStateException expected) {
+        }
+    }
 }
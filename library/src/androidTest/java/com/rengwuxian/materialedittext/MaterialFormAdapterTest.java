@@ -0,0 +1,78 @@
+package com.rengwuxian.materialedittext;
+
+import android.test.AndroidTestCase;
+import android.widget.ListView;
+
+import com.rengwuxian.materialedittext.validation.RequiredValidator;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tests for {@link MaterialFormAdapter}.
+ */
+public class MaterialFormAdapterTest extends AndroidTestCase {
+
+    private List<MaterialFieldState> fields;
+    private MaterialFormAdapter adapter;
+    private ListView parent;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        fields = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            fields.add(new MaterialFieldState().addValidator(new RequiredValidator("Required")));
+        }
+        fields.get(0).setText("text");
+        adapter = new MaterialFormAdapter(getContext(), fields);
+        parent = new ListView(getContext());
+    }
+
+    public void testVisibleInvalidRowShowsItsErrorAfterValidate() {
+        MaterialEditText view = (MaterialEditText) adapter.getView(1, null, parent);
+        view.layout(0, 0, 1000, 1000);
+        assertFalse(adapter.validate());
+        // notifyDataSetChanged() makes the list bind the row again to the same view
+        view = (MaterialEditText) adapter.getView(1, view, parent);
+        assertEquals("Required", view.getError().toString());
+        assertEquals(1, adapter.getFirstErrorPosition());
+    }
+
+    public void testErrorOfTheBoundViewIsWrittenBack() {
+        MaterialEditText view = (MaterialEditText) adapter.getView(1, null, parent);
+        view.layout(0, 0, 1000, 1000);
+        adapter.validate();
+        view = (MaterialEditText) adapter.getView(1, view, parent);
+        // without autoValidate, typing clears the error
+        view.setText("typed");
+        assertNull(fields.get(1).getError());
+        assertEquals("typed", adapter.getText(1).toString());
+        assertEquals(2, adapter.getFirstErrorPosition());
+    }
+
+    public void testTextIsWrittenBackWhenTheViewIsRecycled() {
+        MaterialEditText view = (MaterialEditText) adapter.getView(1, null, parent);
+        view.setText("typed");
+        assertEquals("", fields.get(1).getText().toString());
+        adapter.getView(2, view, parent);
+        assertEquals("typed", fields.get(1).getText().toString());
+        assertEquals("", view.getText().toString());
+    }
+
+    public void testUntypedRowKeepsTheTextSetByTheApp() {
+        MaterialEditText view = (MaterialEditText) adapter.getView(0, null, parent);
+        fields.get(0).setText("changed");
+        view = (MaterialEditText) adapter.getView(0, view, parent);
+        assertEquals("changed", view.getText().toString());
+    }
+
+    public void testRecycledViewShowsTheErrorOfItsNewRow() {
+        MaterialEditText view = (MaterialEditText) adapter.getView(0, null, parent);
+        view.layout(0, 0, 1000, 1000);
+        adapter.validate();
+        view = (MaterialEditText) adapter.getView(2, view, parent);
+        assertEquals("Required", view.getError().toString());
+        assertNull(fields.get(0).getError());
+    }
+}
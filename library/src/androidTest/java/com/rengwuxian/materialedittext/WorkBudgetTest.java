@@ -0,0 +1,117 @@
+package com.rengwuxian.materialedittext;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.test.AndroidTestCase;
+import android.view.View;
+
+import com.rengwuxian.materialedittext.validation.LengthValidator;
+import com.rengwuxian.materialedittext.validation.RegexpValidator;
+import com.rengwuxian.materialedittext.validation.RequiredValidator;
+
+/**
+ * Exact budgets of the work common operations ask for, counted by {@link WorkCounters}.
+ * <p/>
+ * The view is laid out and drawn but not attached, so the animations don't run: the counts are the operation's own work.
+ */
+public class WorkBudgetTest extends AndroidTestCase {
+
+    private MaterialEditText editTextUnderTest;
+    private WorkCounters counters;
+    private Canvas canvas;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        editTextUnderTest = new MaterialEditText(getContext());
+        editTextUnderTest.beginUpdate();
+        editTextUnderTest.setFloatingLabel(MaterialEditText.FLOATING_LABEL_NORMAL);
+        editTextUnderTest.setAutoValidate(true);
+        editTextUnderTest.addValidator(new RequiredValidator("Required"));
+        editTextUnderTest.setText("abc");
+        editTextUnderTest.endUpdate();
+        editTextUnderTest.measure(View.MeasureSpec.makeMeasureSpec(480, View.MeasureSpec.EXACTLY), View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED));
+        editTextUnderTest.layout(0, 0, editTextUnderTest.getMeasuredWidth(), editTextUnderTest.getMeasuredHeight());
+        canvas = new Canvas(Bitmap.createBitmap(editTextUnderTest.getWidth(), editTextUnderTest.getHeight(), Bitmap.Config.ARGB_8888));
+        editTextUnderTest.draw(canvas);
+        counters = editTextUnderTest.getWorkCounters();
+        counters.reset();
+    }
+
+    public void testKeystrokeWithAutoValidate() {
+        editTextUnderTest.getText().append('d');
+        assertBudget(0, 0, 0, 1, 0);
+    }
+
+    public void testKeystrokeRunsEachValidatorOnce() {
+        editTextUnderTest.addValidator(new LengthValidator("Too long", 0, 100));
+        editTextUnderTest.addValidator(new RegexpValidator("No digits", "[^0-9]*"));
+        editTextUnderTest.getText().append('d');
+        assertBudget(0, 0, 0, 3, 0);
+    }
+
+    public void testKeystrokeStopsAtTheFirstFailure() {
+        editTextUnderTest.addValidator(new LengthValidator("Too long", 0, 100));
+        editTextUnderTest.addValidator(new RegexpValidator("No digits", "[^0-9]*"));
+        editTextUnderTest.getText().clear();
+        assertBudget(0, 1, 1, 1, 0);
+    }
+
+    public void testKeystrokeShowingAnError() {
+        editTextUnderTest.getText().clear();
+        // the bottom lines animate, the paddings change on the frames
+        assertBudget(0, 1, 1, 1, 0);
+    }
+
+    public void testKeystrokeClearingTheError() {
+        editTextUnderTest.getText().clear();
+        editTextUnderTest.draw(canvas);
+        counters.reset();
+        editTextUnderTest.getText().append('a');
+        assertBudget(0, 1, 0, 1, 0);
+    }
+
+    public void testDrawDoesNoWork() {
+        editTextUnderTest.setError("Error!");
+        editTextUnderTest.draw(canvas);
+        counters.reset();
+        for (int i = 0; i < 10; i++) {
+            editTextUnderTest.draw(canvas);
+        }
+        assertBudget(0, 0, 0, 0, 0);
+    }
+
+    public void testUpdateLaysOutOnce() {
+        editTextUnderTest.beginUpdate();
+        editTextUnderTest.setFloatingLabel(MaterialEditText.FLOATING_LABEL_HIGHLIGHT);
+        editTextUnderTest.setFloatingLabelTextSize(editTextUnderTest.getFloatingLabelTextSize() * 2);
+        editTextUnderTest.setHideUnderline(true);
+        editTextUnderTest.setMaxCharacters(10);
+        editTextUnderTest.setHelperText("Helper");
+        editTextUnderTest.endUpdate();
+        assertBudget(1, 1, 1, 0, 0);
+    }
+
+    public void testBindLaysOutOnceWithoutValidation() {
+        MaterialFieldState state = new MaterialFieldState();
+        state.setText("xyz");
+        state.setError("Error!");
+        editTextUnderTest.bind(state);
+        assertBudget(1, 1, 1, 0, 0);
+    }
+
+    public void testIconTakesOneBitmapPerState() {
+        int iconSize = Density.dp2px(getContext(), 32);
+        Bitmap icon = Bitmap.createBitmap(iconSize, iconSize, Bitmap.Config.ARGB_8888);
+        editTextUnderTest.setIconLeft(icon);
+        assertBudget(1, 0, 0, 0, 4);
+    }
+
+    private void assertBudget(int layouts, int invalidations, int staticLayouts, int validations, int bitmaps) {
+        assertEquals("layouts", layouts, counters.layouts);
+        assertEquals("invalidations", invalidations, counters.invalidations);
+        assertEquals("StaticLayouts", staticLayouts, counters.staticLayouts);
+        assertEquals("validations", validations, counters.validations);
+        assertEquals("bitmaps", bitmaps, counters.bitmaps);
+    }
+}
@@ -0,0 +1,191 @@
+package com.rengwuxian.materialedittext;
+
+import android.annotation.TargetApi;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.view.Choreographer;
+
+import java.util.ArrayList;
+
+/**
+ * Advances the animations of all the views from a single callback per frame, and hands the values to the views through primitive
+ * setters instead of reflection.
+ * <p/>
+ * Only used on the main thread.
+ */
+final class AnimationDriver {
+
+  /**
+   * Receives the animated values.
+   */
+  interface Target {
+    void onAnimationUpdate(int property, float value);
+  }
+
+  private static final long FALLBACK_FRAME_DELAY = 10;
+
+  private static AnimationDriver instance;
+
+  private final ArrayList<Animation> animations = new ArrayList<>();
+  private final FrameScheduler scheduler;
+  private boolean frameScheduled;
+
+  private AnimationDriver() {
+    scheduler = Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN ? new ChoreographerScheduler(this) : new HandlerScheduler(this);
+  }
+
+  static AnimationDriver getInstance() {
+    if (instance == null) {
+      instance = new AnimationDriver();
+    }
+    return instance;
+  }
+
+  private void add(Animation animation) {
+    if (!animations.contains(animation)) {
+      animations.add(animation);
+    }
+    if (!frameScheduled) {
+      frameScheduled = true;
+      scheduler.scheduleFrame();
+    }
+  }
+
+  private void doFrame(long frameTimeMillis) {
+    frameScheduled = false;
+    // animations started from the callbacks are appended and handled in the same frame
+    for (int i = 0; i < animations.size(); i++) {
+      animations.get(i).doFrame(frameTimeMillis);
+    }
+    int running = 0;
+    for (int i = 0, size = animations.size(); i < size; i++) {
+      Animation animation = animations.get(i);
+      if (animation.running) {
+        animations.set(running++, animation);
+      }
+    }
+    for (int i = animations.size() - 1; i >= running; i--) {
+      animations.remove(i);
+    }
+    if (running > 0 && !frameScheduled) {
+      frameScheduled = true;
+      scheduler.scheduleFrame();
+    }
+  }
+
+  /**
+   * One animated property of a view. Reusable: starting it again while it's running retargets it.
+   */
+  static final class Animation {
+    private final Target target;
+    private final int property;
+    private float from;
+    private float to;
+    private long duration;
+    private long startTime;
+    private boolean running;
+
+    Animation(Target target, int property) {
+      this.target = target;
+      this.property = property;
+    }
+
+    /**
+     * Animate from a value to another, with an accelerate-decelerate curve. A zero duration applies the final value right away.
+     */
+    void start(float from, float to, long duration) {
+      this.from = from;
+      this.to = to;
+      if (duration <= 0) {
+        cancel();
+        target.onAnimationUpdate(property, to);
+        return;
+      }
+      this.duration = duration;
+      // the start time is taken from the first frame
+      this.startTime = -1;
+      this.running = true;
+      getInstance().add(this);
+    }
+
+    /**
+     * Stop at the current value.
+     */
+    void cancel() {
+      running = false;
+    }
+
+    /**
+     * Jump to the final value, if running.
+     */
+    void end() {
+      if (running) {
+        running = false;
+        target.onAnimationUpdate(property, to);
+      }
+    }
+
+    boolean isRunning() {
+      return running;
+    }
+
+    private void doFrame(long frameTimeMillis) {
+      if (!running) {
+        return;
+      }
+      if (startTime < 0) {
+        startTime = frameTimeMillis;
+      }
+      float fraction = Math.min(1f, (float) (frameTimeMillis - startTime) / duration);
+      if (fraction >= 1f) {
+        running = false;
+      }
+      float interpolated = (float) (Math.cos((fraction + 1) * Math.PI) / 2) + 0.5f;
+      target.onAnimationUpdate(property, from + (to - from) * interpolated);
+    }
+  }
+
+  private interface FrameScheduler {
+    void scheduleFrame();
+  }
+
+  @TargetApi(Build.VERSION_CODES.JELLY_BEAN)
+  private static final class ChoreographerScheduler implements FrameScheduler, Choreographer.FrameCallback {
+    private final AnimationDriver driver;
+
+    ChoreographerScheduler(AnimationDriver driver) {
+      this.driver = driver;
+    }
+
+    @Override
+    public void scheduleFrame() {
+      Choreographer.getInstance().postFrameCallback(this);
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+      driver.doFrame(frameTimeNanos / 1000000);
+    }
+  }
+
+  private static final class HandlerScheduler implements FrameScheduler, Runnable {
+    private final AnimationDriver driver;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+
+    HandlerScheduler(AnimationDriver driver) {
+      this.driver = driver;
+    }
+
+    @Override
+    public void scheduleFrame() {
+      handler.postDelayed(this, FALLBACK_FRAME_DELAY);
+    }
+
+    @Override
+    public void run() {
+      driver.doFrame(SystemClock.uptimeMillis());
+    }
+  }
+}
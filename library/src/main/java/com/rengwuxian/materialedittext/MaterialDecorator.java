@@ -0,0 +1,386 @@
+package com.rengwuxian.materialedittext;
+
+import android.annotation.TargetApi;
+import android.graphics.Canvas;
+import android.graphics.ColorFilter;
+import android.graphics.PixelFormat;
+import android.graphics.drawable.Drawable;
+import android.os.Build;
+import android.support.annotation.DrawableRes;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.text.TextWatcher;
+import android.util.AttributeSet;
+import android.view.MotionEvent;
+import android.view.View;
+import android.view.ViewTreeObserver;
+import android.widget.EditText;
+
+import com.rengwuxian.materialedittext.validation.METLengthChecker;
+import com.rengwuxian.materialedittext.validation.METValidationPolicy;
+import com.rengwuxian.materialedittext.validation.METValidator;
+
+/**
+ * Gives any EditText the Material decorations of {@link MaterialEditText}: floating label, underline, icons, clear button, characters
+ * counter, helper/error text and validation. Use it for EditText subclasses that can't extend {@link MaterialEditText}.
+ * <p/>
+ * The decorations are drawn in the view's overlay, so this requires API 18: check {@link Build.VERSION#SDK_INT} before attaching, older
+ * versions have no overlay to draw in. The decorator takes over the view's paddings, background, {@link View.OnFocusChangeListener} and
+ * {@link View.OnTouchListener}. Set the focus listener with {@link #setOnFocusChangeListener(View.OnFocusChangeListener)} instead. A touch
+ * listener the view already has can't be read back, pass it to {@link #attach(EditText, AttributeSet, View.OnTouchListener)}, or set it
+ * later with {@link #setOnTouchListener(View.OnTouchListener)}. It gets the events before the clear button, like on
+ * {@link MaterialEditText}.
+ * <p/>
+ * Compared to {@link MaterialEditText}, the decorator can't see the IME's batch edits or window visibility changes, so the checks
+ * deferred with met_deferValidationWhileComposing run when the focus is lost, and met_validateAfterTextWatchers has no effect.
+ */
+@TargetApi(Build.VERSION_CODES.JELLY_BEAN_MR2)
+public final class MaterialDecorator {
+
+  private final EditText editText;
+  private final MaterialTextEngine engine;
+  private final DecorationDrawable drawable = new DecorationDrawable();
+  private final Listeners listeners = new Listeners();
+
+  /**
+   * The view's own background, replaced by the underline while attached.
+   */
+  private Drawable background;
+
+  /**
+   * The app's touch listener, called before the clear button handles the event.
+   */
+  private View.OnTouchListener touchListener;
+
+  /**
+   * The observer the global layout listener was added to. A view gets a new one each time it's attached to a window.
+   */
+  private ViewTreeObserver layoutObserver;
+
+  private MaterialDecorator(EditText editText) {
+    this.editText = editText;
+    this.engine = new MaterialTextEngine(editText, listeners, true);
+  }
+
+  /**
+   * Attach the decorations to the view. Requires API 18.
+   */
+  @NonNull
+  @TargetApi(Build.VERSION_CODES.JELLY_BEAN_MR2)
+  public static MaterialDecorator attach(@NonNull EditText editText) {
+    return attach(editText, null, null);
+  }
+
+  /**
+   * Attach the decorations to the view, reading the met_* attributes from the given set. Custom views can pass the AttributeSet of their
+   * constructor to be styled from xml like {@link MaterialEditText}. Requires API 18.
+   */
+  @NonNull
+  @TargetApi(Build.VERSION_CODES.JELLY_BEAN_MR2)
+  public static MaterialDecorator attach(@NonNull EditText editText, @Nullable AttributeSet attrs) {
+    return attach(editText, attrs, null);
+  }
+
+  /**
+   * Attach the decorations to the view, keeping the touch listener the app has set on it. The view gets it back on {@link #detach()}.
+   * Requires API 18.
+   */
+  @NonNull
+  @TargetApi(Build.VERSION_CODES.JELLY_BEAN_MR2)
+  public static MaterialDecorator attach(@NonNull EditText editText, @Nullable AttributeSet attrs, @Nullable View.OnTouchListener touchListener) {
+    MaterialDecorator decorator = new MaterialDecorator(editText);
+    decorator.touchListener = touchListener;
+    decorator.attach(attrs);
+    return decorator;
+  }
+
+  private void attach(AttributeSet attrs) {
+    View.OnFocusChangeListener focusChangeListener = editText.getOnFocusChangeListener();
+    int paddingLeft = editText.getPaddingLeft();
+    int paddingTop = editText.getPaddingTop();
+    int paddingRight = editText.getPaddingRight();
+    int paddingBottom = editText.getPaddingBottom();
+    background = editText.getBackground();
+
+    engine.beginUpdate();
+    engine.init(editText.getContext(), attrs, true);
+    if (attrs == null) {
+      engine.setPaddings(paddingLeft, paddingTop, paddingRight, paddingBottom);
+    }
+    engine.endUpdate();
+    engine.setOnFocusChangeListener(focusChangeListener);
+
+    editText.setOnTouchListener(listeners);
+    editText.addOnLayoutChangeListener(listeners);
+    editText.addOnAttachStateChangeListener(listeners);
+    drawable.setBounds(0, 0, editText.getWidth(), editText.getHeight());
+    editText.getOverlay().add(drawable);
+    if (editText.getWindowToken() != null) {
+      observeLayouts();
+      engine.onAttachedToWindow();
+    }
+  }
+
+  private void observeLayouts() {
+    layoutObserver = editText.getViewTreeObserver();
+    layoutObserver.addOnGlobalLayoutListener(listeners);
+  }
+
+  private void stopObservingLayouts() {
+    if (layoutObserver != null && layoutObserver.isAlive()) {
+      layoutObserver.removeOnGlobalLayoutListener(listeners);
+    }
+    layoutObserver = null;
+  }
+
+  /**
+   * Remove the decorations and give the view its own background, paddings, focus listener and touch listener back. The decorator can't be
+   * used afterwards.
+   */
+  public void detach() {
+    engine.onDetachedFromWindow();
+    editText.getOverlay().remove(drawable);
+    stopObservingLayouts();
+    editText.removeOnAttachStateChangeListener(listeners);
+    editText.removeOnLayoutChangeListener(listeners);
+    editText.setOnTouchListener(touchListener);
+    editText.removeTextChangedListener(engine.innerTextWatcher);
+    editText.setOnFocusChangeListener(engine.outerFocusChangeListener);
+    // before the paddings, a background with paddings of its own changes them
+    editText.setBackground(background);
+    editText.setPadding(engine.getInnerPaddingLeft(), engine.getInnerPaddingTop(), engine.getInnerPaddingRight(), engine.getInnerPaddingBottom());
+  }
+
+  @NonNull
+  public EditText getEditText() {
+    return editText;
+  }
+
+  /**
+   * @see MaterialEditText#beginUpdate()
+   */
+  public void beginUpdate() {
+    engine.beginUpdate();
+  }
+
+  /**
+   * @see MaterialEditText#endUpdate()
+   */
+  public void endUpdate() {
+    engine.endUpdate();
+  }
+
+  /**
+   * @see MaterialEditText#bind(MaterialFieldState)
+   */
+  public void bind(@NonNull MaterialFieldState state) {
+    engine.bind(state);
+  }
+
+  @NonNull
+  public MaterialFieldState getFieldState() {
+    return engine.getFieldState();
+  }
+
+  public void setOnFocusChangeListener(View.OnFocusChangeListener listener) {
+    engine.setOnFocusChangeListener(listener);
+  }
+
+  public void setOnTouchListener(View.OnTouchListener listener) {
+    touchListener = listener;
+  }
+
+  public void setFloatingLabel(@MaterialEditText.FloatingLabelType int mode) {
+    engine.setFloatingLabel(mode);
+  }
+
+  /**
+   * Pass null to force fallback to use hint's value.
+   */
+  public void setFloatingLabelText(@Nullable CharSequence floatingLabelText) {
+    engine.setFloatingLabelText(floatingLabelText);
+  }
+
+  public void setBaseColor(int color) {
+    engine.setBaseColor(color);
+  }
+
+  public void setPrimaryColor(int color) {
+    engine.setPrimaryColor(color);
+  }
+
+  public void setErrorColor(int color) {
+    engine.setErrorColor(color);
+  }
+
+  public void setUnderlineColor(int color) {
+    engine.setUnderlineColor(color);
+  }
+
+  public void setHideUnderline(boolean hideUnderline) {
+    engine.setHideUnderline(hideUnderline);
+  }
+
+  public void setIconLeft(@DrawableRes int res) {
+    engine.setIconLeft(res);
+  }
+
+  public void setIconRight(@DrawableRes int res) {
+    engine.setIconRight(res);
+  }
+
+  public void setShowClearButton(boolean show) {
+    engine.setShowClearButton(show);
+  }
+
+  public void setMinCharacters(int min) {
+    engine.setMinCharacters(min);
+  }
+
+  public void setMaxCharacters(int max) {
+    engine.setMaxCharacters(max);
+  }
+
+  public boolean isCharactersCountValid() {
+    return engine.isCharactersCountValid();
+  }
+
+  public void setHelperText(CharSequence helperText) {
+    engine.setHelperText(helperText);
+  }
+
+  public String getHelperText() {
+    return engine.getHelperText();
+  }
+
+  /**
+   * Show the error text below the view. Unlike {@link EditText#setError(CharSequence)}, this doesn't show a popup.
+   */
+  public void setError(CharSequence errorText) {
+    engine.setError(errorText);
+  }
+
+  public CharSequence getError() {
+    return engine.getError();
+  }
+
+  public void setAutoValidate(boolean autoValidate) {
+    engine.setAutoValidate(autoValidate);
+  }
+
+  public void setValidateOnFocusLost(boolean validate) {
+    engine.setValidateOnFocusLost(validate);
+  }
+
+  /**
+   * @see MaterialEditText#addValidator(METValidator)
+   */
+  public MaterialDecorator addValidator(METValidator validator) {
+    engine.addValidator(validator);
+    return this;
+  }
+
+  public void clearValidators() {
+    engine.clearValidators();
+  }
+
+  /**
+   * @see MaterialEditText#validate()
+   */
+  public boolean validate() {
+    return engine.validate();
+  }
+
+  public boolean validateWith(@NonNull METValidator validator) {
+    return engine.validateWith(validator);
+  }
+
+  public void setValidationPolicy(@Nullable METValidationPolicy policy) {
+    engine.setValidationPolicy(policy);
+  }
+
+  public void setLengthChecker(METLengthChecker lengthChecker) {
+    engine.setLengthChecker(lengthChecker);
+  }
+
+  /**
+   * Forwards the view's callbacks to the engine, and gives it the View's own behavior through the public API.
+   */
+  private final class Listeners implements MaterialTextEngine.Host, View.OnTouchListener, View.OnLayoutChangeListener,
+      View.OnAttachStateChangeListener, ViewTreeObserver.OnGlobalLayoutListener {
+
+    @Override
+    public void superAddTextChangedListener(TextWatcher watcher) {
+      editText.addTextChangedListener(watcher);
+    }
+
+    @Override
+    public void superSetOnFocusChangeListener(View.OnFocusChangeListener listener) {
+      editText.setOnFocusChangeListener(listener);
+    }
+
+    @Override
+    public boolean superOnTouchEvent(MotionEvent event) {
+      // let the view handle it
+      return false;
+    }
+
+    @Override
+    public boolean onTouch(View v, MotionEvent event) {
+      if (touchListener != null && touchListener.onTouch(v, event)) {
+        return true;
+      }
+      return engine.onTouchEvent(event);
+    }
+
+    @Override
+    public void onLayoutChange(View v, int left, int top, int right, int bottom, int oldLeft, int oldTop, int oldRight, int oldBottom) {
+      drawable.setBounds(0, 0, right - left, bottom - top);
+      engine.onLayout(left != oldLeft || top != oldTop || right != oldRight || bottom != oldBottom);
+    }
+
+    @Override
+    public void onViewAttachedToWindow(View v) {
+      observeLayouts();
+      engine.onAttachedToWindow();
+    }
+
+    @Override
+    public void onViewDetachedFromWindow(View v) {
+      stopObservingLayouts();
+      engine.onDetachedFromWindow();
+    }
+
+    /**
+     * There's no listener for the visibility of the view or its parents, so check it after each layout.
+     */
+    @Override
+    public void onGlobalLayout() {
+      engine.onVisibilityChanged();
+    }
+  }
+
+  /**
+   * Draws the decorations over the view's content.
+   */
+  private final class DecorationDrawable extends Drawable {
+
+    @Override
+    public void draw(@NonNull Canvas canvas) {
+      engine.onDraw(canvas);
+    }
+
+    @Override
+    public void setAlpha(int alpha) {
+    }
+
+    @Override
+    public void setColorFilter(ColorFilter colorFilter) {
+    }
+
+    @Override
+    public int getOpacity() {
+      return PixelFormat.TRANSLUCENT;
+    }
+  }
+}
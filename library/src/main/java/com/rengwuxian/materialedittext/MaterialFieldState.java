@@ -0,0 +1,88 @@
+package com.rengwuxian.materialedittext;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.rengwuxian.materialedittext.validation.METValidator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The per-field state of a {@link MaterialEditText}: the text, the floating label, the helper/error texts and the validators.
+ * <p/>
+ * Keep one per row and hand it to {@link MaterialEditText#bind(MaterialFieldState)} when a recycled view is bound, to show the row
+ * without animations, validation or extra layouts.
+ */
+public class MaterialFieldState {
+
+  private CharSequence text = "";
+  private String error;
+  private String helperText;
+  private CharSequence floatingLabelText;
+  private final List<METValidator> validators = new ArrayList<>();
+  private final List<METValidator> readOnlyValidators = Collections.unmodifiableList(validators);
+
+  @NonNull
+  public CharSequence getText() {
+    return text;
+  }
+
+  public void setText(@Nullable CharSequence text) {
+    this.text = text == null ? "" : text.toString();
+  }
+
+  /**
+   * @return The error text to show, or null if there is none. It's shown as is; the validators don't run when the state is bound.
+   */
+  @Nullable
+  public String getError() {
+    return error;
+  }
+
+  public void setError(@Nullable CharSequence error) {
+    this.error = error == null ? null : error.toString();
+  }
+
+  @Nullable
+  public String getHelperText() {
+    return helperText;
+  }
+
+  public void setHelperText(@Nullable CharSequence helperText) {
+    this.helperText = helperText == null ? null : helperText.toString();
+  }
+
+  @Nullable
+  public CharSequence getFloatingLabelText() {
+    return floatingLabelText;
+  }
+
+  /**
+   * @param floatingLabelText The label, or null to use the hint.
+   */
+  public void setFloatingLabelText(@Nullable CharSequence floatingLabelText) {
+    this.floatingLabelText = floatingLabelText;
+  }
+
+  @NonNull
+  public List<METValidator> getValidators() {
+    return readOnlyValidators;
+  }
+
+  public void setValidators(@Nullable List<METValidator> validators) {
+    this.validators.clear();
+    if (validators != null) {
+      this.validators.addAll(validators);
+    }
+  }
+
+  /**
+   * @return This instance, for easy chaining
+   */
+  public MaterialFieldState addValidator(@NonNull METValidator validator) {
+    validators.add(validator);
+    return this;
+  }
+}
@@ -0,0 +1,265 @@
+package com.rengwuxian.materialedittext;
+
+import android.content.Context;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.text.Editable;
+import android.text.TextWatcher;
+import android.view.View;
+import android.view.ViewGroup;
+import android.view.ViewTreeObserver;
+import android.widget.BaseAdapter;
+
+import com.rengwuxian.materialedittext.validation.METValidationPolicy;
+import com.rengwuxian.materialedittext.validation.METValidationResult;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Adapter for a ListView that shows a long form with a few pooled {@link MaterialEditText} views.
+ * <p/>
+ * Each row is a {@link MaterialFieldState}; only the visible rows are bound to views, through {@link MaterialEditText#bind(MaterialFieldState)}.
+ * The typed text is written back to the row when its view is bound to another one and before {@link #validate()}, so it checks every row,
+ * visible or not; {@link #getText(int)} reads the current text of any row. The focused row gets the focus and the selection back when it's
+ * scrolled into view again.
+ * <p/>
+ * Set android:descendantFocusability="afterDescendants" on the ListView so that the fields can take the focus, and call {@link #release()}
+ * when the list goes away.
+ */
+public class MaterialFormAdapter extends BaseAdapter {
+
+  private final Context context;
+  private final List<MaterialFieldState> fields;
+  private final List<Row> rows = new ArrayList<>();
+  private METValidationPolicy validationPolicy = METValidationPolicy.SEQUENTIAL;
+
+  /**
+   * The row that had the focus, and its selection when its view was recycled.
+   */
+  private int focusedPosition = -1;
+  private int focusedSelectionStart;
+  private int focusedSelectionEnd;
+  private ViewTreeObserver focusObserver;
+  private boolean rebinding;
+
+  /**
+   * A view scrolled out of the list loses the focus to nobody, which keeps its row focused. Any other focus change moves the focused row.
+   */
+  private final ViewTreeObserver.OnGlobalFocusChangeListener focusChangeListener = new ViewTreeObserver.OnGlobalFocusChangeListener() {
+    @Override
+    public void onGlobalFocusChanged(View oldFocus, View newFocus) {
+      if (newFocus == null || rebinding) {
+        return;
+      }
+      Object tag = newFocus.getTag();
+      if (tag instanceof Row && ((Row) tag).view == newFocus) {
+        focusedPosition = ((Row) tag).position;
+      } else {
+        focusedPosition = -1;
+      }
+    }
+  };
+
+  public MaterialFormAdapter(@NonNull Context context, @NonNull List<MaterialFieldState> fields) {
+    this.context = context;
+    this.fields = fields;
+  }
+
+  @Override
+  public int getCount() {
+    return fields.size();
+  }
+
+  @Override
+  public MaterialFieldState getItem(int position) {
+    return fields.get(position);
+  }
+
+  @Override
+  public long getItemId(int position) {
+    return position;
+  }
+
+  @Override
+  public View getView(int position, View convertView, ViewGroup parent) {
+    MaterialEditText view;
+    Row row;
+    if (convertView == null) {
+      view = onCreateField(parent);
+      row = new Row(view);
+      view.setTag(row);
+      view.addTextChangedListener(row);
+      view.setErrorListener(row);
+      rows.add(row);
+    } else {
+      view = (MaterialEditText) convertView;
+      row = (Row) view.getTag();
+      row.unbind();
+    }
+    observeFocus(parent);
+    view.bind(fields.get(position));
+    row.position = position;
+    row.textChanged = false;
+    if (position == focusedPosition) {
+      view.requestFocus();
+      int length = view.getText().length();
+      view.setSelection(Math.min(focusedSelectionStart, length), Math.min(focusedSelectionEnd, length));
+    } else if (view.hasFocus()) {
+      // the view was recycled for another row, which must not look focused
+      rebinding = true;
+      view.clearFocus();
+      rebinding = false;
+    }
+    return view;
+  }
+
+  /**
+   * Follow the focus in the window of the list. The list gets another observer each time it's attached to a window.
+   */
+  private void observeFocus(ViewGroup parent) {
+    ViewTreeObserver observer = parent.getViewTreeObserver();
+    if (observer == focusObserver) {
+      return;
+    }
+    release();
+    // a floating observer merges its listeners into the window's one, don't add it twice
+    observer.removeOnGlobalFocusChangeListener(focusChangeListener);
+    observer.addOnGlobalFocusChangeListener(focusChangeListener);
+    focusObserver = observer;
+  }
+
+  /**
+   * Stop following the focus of the list's window, e.g. in onDestroyView(). The adapter follows it again on its next
+   * {@link #getView(int, View, ViewGroup)}.
+   */
+  public void release() {
+    if (focusObserver != null && focusObserver.isAlive()) {
+      focusObserver.removeOnGlobalFocusChangeListener(focusChangeListener);
+    }
+    focusObserver = null;
+  }
+
+  /**
+   * @return The current text of the row, from its view if it's shown.
+   */
+  @NonNull
+  public CharSequence getText(int position) {
+    for (int i = 0, count = rows.size(); i < count; i++) {
+      Row row = rows.get(i);
+      if (row.position == position) {
+        return row.view.getText();
+      }
+    }
+    return fields.get(position).getText();
+  }
+
+  /**
+   * Create a pooled field. Override to inflate a styled one; it must not have a tag, the adapter keeps its own there.
+   */
+  @NonNull
+  protected MaterialEditText onCreateField(ViewGroup parent) {
+    return new MaterialEditText(context);
+  }
+
+  public void setValidationPolicy(@Nullable METValidationPolicy policy) {
+    this.validationPolicy = policy == null ? METValidationPolicy.SEQUENTIAL : policy;
+  }
+
+  /**
+   * Check the validators of every row, including the ones that are not shown, and show the errors.
+   *
+   * @return True if all rows pass, false if not
+   */
+  public boolean validate() {
+    for (int i = 0, count = rows.size(); i < count; i++) {
+      rows.get(i).saveText();
+    }
+    boolean valid = true;
+    for (int i = 0, count = fields.size(); i < count; i++) {
+      valid &= validate(fields.get(i));
+    }
+    notifyDataSetChanged();
+    return valid;
+  }
+
+  /**
+   * @return The position of the first row with an error, or -1 if there is none. Use it to scroll to the row.
+   */
+  public int getFirstErrorPosition() {
+    for (int i = 0, count = fields.size(); i < count; i++) {
+      if (fields.get(i).getError() != null) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private boolean validate(MaterialFieldState field) {
+    CharSequence text = field.getText();
+    METValidationResult result = validationPolicy.validate(field.getValidators(), text, text.length() == 0);
+    field.setError(result.isValid() ? null : result.getErrorMessage());
+    return result.isValid();
+  }
+
+  /**
+   * Writes the changes of a pooled view back to the row it's bound to: the error as soon as it changes, so that
+   * {@link #getFirstErrorPosition()} and a later bind never see a stale one, and the text when it's needed, as copying it on every keystroke
+   * would be wasted.
+   */
+  private final class Row implements TextWatcher, MaterialTextEngine.ErrorListener {
+    final MaterialEditText view;
+    int position = -1;
+
+    /**
+     * Whether the text was typed since the bind. The row keeps its text otherwise, the app may have changed it.
+     */
+    boolean textChanged;
+
+    Row(MaterialEditText view) {
+      this.view = view;
+    }
+
+    void saveText() {
+      if (position != -1 && textChanged) {
+        fields.get(position).setText(view.getText());
+        textChanged = false;
+      }
+    }
+
+    /**
+     * Save the text and the selection before the view is bound to another row. The error is already saved.
+     */
+    void unbind() {
+      if (position == -1) {
+        return;
+      }
+      saveText();
+      if (position == focusedPosition) {
+        focusedSelectionStart = view.getSelectionStart();
+        focusedSelectionEnd = view.getSelectionEnd();
+      }
+      position = -1;
+    }
+
+    @Override
+    public void beforeTextChanged(CharSequence s, int start, int count, int after) {
+    }
+
+    @Override
+    public void onTextChanged(CharSequence s, int start, int before, int count) {
+    }
+
+    @Override
+    public void afterTextChanged(Editable s) {
+      textChanged = true;
+    }
+
+    @Override
+    public void onErrorChanged(String error) {
+      if (position != -1) {
+        fields.get(position).setError(error);
+      }
+    }
+  }
+}
@@ -0,0 +1,2188 @@
+package com.rengwuxian.materialedittext;
+
+import android.annotation.TargetApi;
+import android.content.Context;
+import android.content.res.ColorStateList;
+import android.content.res.Configuration;
+import android.content.res.TypedArray;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Picture;
+import android.graphics.PorterDuff;
+import android.graphics.Typeface;
+import android.graphics.drawable.Drawable;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.support.annotation.DrawableRes;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.text.Editable;
+import android.text.Layout;
+import android.text.StaticLayout;
+import android.text.TextPaint;
+import android.text.TextUtils;
+import android.text.TextWatcher;
+import android.text.method.TransformationMethod;
+import android.util.AttributeSet;
+import android.util.TypedValue;
+import android.view.Gravity;
+import android.view.MotionEvent;
+import android.view.View;
+import android.view.inputmethod.BaseInputConnection;
+import android.view.inputmethod.InputConnection;
+import android.view.inputmethod.InputConnectionWrapper;
+import android.widget.EditText;
+
+import com.rengwuxian.materialedittext.validation.DeclaredValidators;
+import com.rengwuxian.materialedittext.validation.METFieldModel;
+import com.rengwuxian.materialedittext.validation.METLengthChecker;
+import com.rengwuxian.materialedittext.validation.METValidationPolicy;
+import com.rengwuxian.materialedittext.validation.METValidationResult;
+import com.rengwuxian.materialedittext.validation.METValidator;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The decorations, measurement, validation and animations of {@link MaterialEditText}, {@link MaterialAutoCompleteTextView} and
+ * {@link MaterialMultiAutoCompleteTextView}. The views forward their public API and their View callbacks to it, so all of them share one
+ * implementation.
+ */
+final class MaterialTextEngine {
+
+  /**
+   * The View's own implementation of the methods the views override to call into the engine.
+   */
+  interface Host {
+    void superAddTextChangedListener(TextWatcher watcher);
+
+    void superSetOnFocusChangeListener(View.OnFocusChangeListener listener);
+
+    boolean superOnTouchEvent(MotionEvent event);
+  }
+
+  /**
+   * Told when the shown error changes, whether set by the app or by the validation. Not told by {@link #bind(MaterialFieldState)}.
+   */
+  interface ErrorListener {
+    void onErrorChanged(String error);
+  }
+
+  private static final int[] EMPTY_STATE_SET = {};
+
+  private static final int PROPERTY_FLOATING_LABEL_FRACTION = 0;
+  private static final int PROPERTY_FOCUS_FRACTION = 1;
+  private static final int PROPERTY_CURRENT_BOTTOM_LINES = 2;
+  private static final long ANIMATION_DURATION = 300;
+
+  private static final int STATIC_DECORATION_KEY_SIZE = 14;
+  private static final int STATIC_DECORATION_REFS_SIZE = 7;
+  private static final int DYNAMIC_DECORATION_KEY_SIZE = 23;
+  private static final int DYNAMIC_DECORATION_REFS_SIZE = 2;
+
+  /**
+   * the spacing between the main text and the inner top padding.
+   */
+  private int extraPaddingTop;
+
+  /**
+   * the spacing between the main text and the inner bottom padding.
+   */
+  private int extraPaddingBottom;
+
+  /**
+   * the extra spacing between the main text and the left, actually for the left icon.
+   */
+  private int extraPaddingLeft;
+
+  /**
+   * the extra spacing between the main text and the right, actually for the right icon.
+   */
+  private int extraPaddingRight;
+
+  /**
+   * the floating label's text size.
+   */
+  private int floatingLabelTextSize;
+
+  /**
+   * the floating label's text color.
+   */
+  private int floatingLabelTextColor;
+
+  /**
+   * the bottom texts' size.
+   */
+  private int bottomTextSize;
+
+  /**
+   * the spacing between the main text and the floating label.
+   */
+  private int floatingLabelPadding;
+
+  /**
+   * the spacing between the main text and the bottom components (bottom ellipsis, helper/error text, characters counter).
+   */
+  private int bottomSpacing;
+
+  /**
+   * whether the floating label should be shown. default is false.
+   */
+  private boolean floatingLabelEnabled;
+
+  /**
+   * whether to highlight the floating label's text color when focused (with the main color). default is true.
+   */
+  private boolean highlightFloatingLabel;
+
+  /**
+   * the base color of the line and the texts. default is black.
+   */
+  private int baseColor;
+
+  /**
+   * inner top padding
+   */
+  private int innerPaddingTop;
+
+  /**
+   * inner bottom padding
+   */
+  private int innerPaddingBottom;
+
+  /**
+   * inner left padding
+   */
+  private int innerPaddingLeft;
+
+  /**
+   * inner right padding
+   */
+  private int innerPaddingRight;
+
+  /**
+   * the underline's highlight color, and the highlight color of the floating label if app:highlightFloatingLabel is set true in the xml. default is black(when app:darkTheme is false) or white(when app:darkTheme is true)
+   */
+  private int primaryColor;
+
+  /**
+   * the color for when something is wrong.(e.g. exceeding max characters)
+   */
+  private int errorColor;
+
+  /**
+   * whether to show the bottom ellipsis in singleLine mode. default is false. NOTE: the bottom ellipsis will increase the View's height.
+   */
+  private boolean singleLineEllipsis;
+
+  /**
+   * Always show the floating label, instead of animating it in/out. False by default.
+   */
+  private boolean floatingLabelAlwaysShown;
+
+  /**
+   * Always show the helper text, no matter if the edit text is focused. False by default.
+   */
+  private boolean helperTextAlwaysShown;
+
+  /**
+   * bottom ellipsis's height
+   */
+  private int bottomEllipsisSize;
+
+  /**
+   * min bottom lines count.
+   */
+  private int minBottomLines;
+
+  /**
+   * reserved bottom text lines count, no matter if there is some helper/error text.
+   */
+  private int minBottomTextLines;
+
+  /**
+   * Whether the bottom area is kept at {@link #minBottomLines}, so the helper/error text never changes the measured height.
+   */
+  private boolean fixedBottomTextLines;
+
+  /**
+   * real-time bottom lines count. used for bottom extending/collapsing animation.
+   */
+  private float currentBottomLines;
+
+  /**
+   * bottom lines count.
+   */
+  private float bottomLines;
+
+  /**
+   * Helper text at the bottom
+   */
+  private String helperText;
+
+  /**
+   * Helper text color
+   */
+  private int helperTextColor = -1;
+
+  /**
+   * error text for manually invoked {@link #setError(CharSequence)}
+   */
+  private String tempErrorText;
+
+  /**
+   * animation fraction of the floating label (0 as totally hidden).
+   */
+  private float floatingLabelFraction;
+
+  /**
+   * whether the floating label is being shown.
+   */
+  private boolean floatingLabelShown;
+
+  /**
+   * the floating label's focusFraction
+   */
+  private float focusFraction;
+
+  /**
+   * The font used for the accent texts (floating label, error/helper text, character counter, etc.)
+   */
+  private Typeface accentTypeface;
+
+  /**
+   * The font used on the view (EditText content)
+   */
+  private Typeface typeface;
+
+  /**
+   * Text for the floatLabel if different from the hint
+   */
+  private CharSequence floatingLabelText;
+
+  /**
+   * Whether or not to show the underline. Shown by default
+   */
+  private boolean hideUnderline;
+
+  /**
+   * Underline's color
+   */
+  private int underlineColor;
+
+  /**
+   * Whether to validate as soon as the text has changed. False by default
+   */
+  private boolean autoValidate;
+
+  /**
+   * Whether the characters count is valid
+   */
+  private boolean charactersCountValid;
+
+  /**
+   * Whether use animation to show/hide the floating label.
+   */
+  private boolean floatingLabelAnimating;
+
+  /**
+   * Whether check the characters count at the beginning it's shown.
+   */
+  private boolean checkCharactersCountAtBeginning;
+
+  /**
+   * Left Icon
+   */
+  private Bitmap[] iconLeftBitmaps;
+
+  /**
+   * Right Icon
+   */
+  private Bitmap[] iconRightBitmaps;
+
+  /**
+   * Clear Button
+   */
+  private Bitmap[] clearButtonBitmaps;
+
+  /**
+   * Auto validate when focus lost.
+   */
+  private boolean validateOnFocusLost;
+
+  /**
+   * Whether to hold back the characters count check and the auto validation while the IME is composing text.
+   */
+  private boolean deferValidationWhileComposing;
+
+  /**
+   * Whether a text change is waiting for the text to settle (IME composition, batch edit or nested change).
+   */
+  private boolean textChangePending;
+
+  /**
+   * Nesting depth of the text changes being dispatched, more than 1 when a TextWatcher changes the text.
+   * <p/>
+   * The TextView dispatches by index over its live watcher list. With {@link #validateAfterTextWatchers}, a watcher added during a
+   * dispatch moves the inner watcher out of reach
+   * of the current loop and it misses the after call of the change. {@link #settleTextChange} then resets the depth once the dispatch is
+   * over. Removing a watcher during a dispatch makes the TextView throw anyway.
+   */
+  private int textChangeDepth;
+
+  /**
+   * Whether {@link #settleTextChange} is posted.
+   */
+  private boolean settlePosted;
+  private Handler mainHandler;
+
+  /**
+   * Whether the inner watcher is kept behind the app's watchers, see {@link #addTextChangedListener(TextWatcher)}.
+   */
+  private boolean validateAfterTextWatchers;
+
+  private final Runnable settleTextChange = new Runnable() {
+    @Override
+    public void run() {
+      settlePosted = false;
+      textChangeDepth = 0;
+      if (textChangePending && !inBatchEdit && updateDepth == 0 && !hidden) {
+        handleSettledTextChange();
+      }
+    }
+  };
+
+  /**
+   * Whether a batch edit is in progress.
+   */
+  private boolean inBatchEdit;
+
+  /**
+   * Nesting depth of {@link #beginUpdate()}.
+   */
+  private int updateDepth;
+
+  /**
+   * Whether the view can't be seen: detached, in a hidden window or not shown. Animations jump to their end and the text change work
+   * waits until the view is shown again.
+   */
+  private boolean hidden;
+  private boolean attached;
+  private boolean windowVisible = true;
+
+  /**
+   * Whether the paddings need to be recalculated at the end of the update.
+   */
+  private boolean paddingsPending;
+
+  /**
+   * Whether the bottom lines need to be recalculated at the end of the update.
+   */
+  private boolean bottomLinesPending;
+
+  private boolean showClearButton;
+  private boolean firstShown;
+  private int iconSize;
+  private int iconOuterWidth;
+  private int iconOuterHeight;
+  private int iconPadding;
+  private boolean clearButtonTouched;
+  private boolean clearButtonClicking;
+  private ColorStateList textColorStateList;
+  private ColorStateList textColorHintStateList;
+
+  /**
+   * the decoration state of the last drawn frame, see {@link #invalidateDecorations()}.
+   */
+  private String drawnErrorText;
+  private StaticLayout drawnTextLayout;
+  private int drawnCharactersCount;
+
+  /**
+   * The characters count of the settled text, updated with the validity. The counter shows this one, so with
+   * met_deferValidationWhileComposing it doesn't change on every composing edit either.
+   */
+  private int charactersCount;
+  private int drawnDecorationFlags = -1;
+
+  /**
+   * Whether the whole view was invalidated and not drawn yet, which makes {@link #invalidateDecorations()} redundant.
+   */
+  private boolean decorationsInvalidated;
+
+  final WorkCounters workCounters = new WorkCounters();
+
+  ErrorListener errorListener;
+
+  /**
+   * the recorded decorations, replayed as long as the state they're drawn from doesn't change (e.g. while only the cursor blinks).
+   */
+  private DecorationLayer staticDecorationLayer = new DecorationLayer(STATIC_DECORATION_KEY_SIZE, STATIC_DECORATION_REFS_SIZE);
+  private DecorationLayer dynamicDecorationLayer = new DecorationLayer(DYNAMIC_DECORATION_KEY_SIZE, DYNAMIC_DECORATION_REFS_SIZE);
+  Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
+  TextPaint textPaint = new TextPaint(Paint.ANTI_ALIAS_FLAG);
+  /**
+   * filled by {@link Paint#getFontMetrics(Paint.FontMetrics)}, which doesn't allocate like {@link Paint#getFontMetrics()}.
+   */
+  private final Paint.FontMetrics textMetrics = new Paint.FontMetrics();
+  StaticLayout textLayout;
+  AnimationDriver.Animation labelAnimator;
+  AnimationDriver.Animation labelFocusAnimator;
+  AnimationDriver.Animation bottomLinesAnimator;
+  final AnimationDriver.Target animationTarget = new AnimationDriver.Target() {
+    @Override
+    public void onAnimationUpdate(int property, float value) {
+      switch (property) {
+        case PROPERTY_FLOATING_LABEL_FRACTION:
+          setFloatingLabelFraction(value);
+          break;
+        case PROPERTY_FOCUS_FRACTION:
+          setFocusFraction(value);
+          break;
+        case PROPERTY_CURRENT_BOTTOM_LINES:
+          setCurrentBottomLines(value);
+          break;
+      }
+    }
+  };
+  View.OnFocusChangeListener innerFocusChangeListener;
+  View.OnFocusChangeListener outerFocusChangeListener;
+  TextWatcher innerTextWatcher;
+
+  /**
+   * the characters count limits and the validators. NOTE: the character counter will increase the View's height.
+   */
+  private final METFieldModel fieldModel = new METFieldModel();
+
+  private final EditText view;
+  private final Host host;
+
+  /**
+   * Whether the underline and the bottom texts start and end at the view's paddings instead of its edges.
+   */
+  private final boolean decorationsInsidePadding;
+
+  /**
+   * Whether the text is never set again to refresh the colors, see {@link #init(Context, AttributeSet, boolean)}.
+   */
+  private boolean keepText;
+
+  MaterialTextEngine(EditText view, Host host, boolean decorationsInsidePadding) {
+    this.view = view;
+    this.host = host;
+    this.decorationsInsidePadding = decorationsInsidePadding;
+  }
+
+  /**
+   * Read the attributes and set the view up. Called once, from the view's constructor or when the decorator attaches.
+   *
+   * @param keepText Whether to leave the text alone, for a view already in use: setting it again would run the app's TextWatchers.
+   */
+  void init(Context context, AttributeSet attrs, boolean keepText) {
+    this.keepText = keepText;
+    iconSize = getPixel(32);
+    iconOuterWidth = getPixel(48);
+    iconOuterHeight = getPixel(32);
+
+    bottomSpacing = view.getResources().getDimensionPixelSize(R.dimen.inner_components_spacing);
+    bottomEllipsisSize = view.getResources().getDimensionPixelSize(R.dimen.bottom_ellipsis_height);
+
+    // default baseColor is black
+    int defaultBaseColor = Color.BLACK;
+
+    TypedArray typedArray = context.obtainStyledAttributes(attrs, R.styleable.MaterialEditText);
+    textColorStateList = typedArray.getColorStateList(R.styleable.MaterialEditText_met_textColor);
+    textColorHintStateList = typedArray.getColorStateList(R.styleable.MaterialEditText_met_textColorHint);
+    baseColor = typedArray.getColor(R.styleable.MaterialEditText_met_baseColor, defaultBaseColor);
+
+    // retrieve the default primaryColor
+    int defaultPrimaryColor;
+    TypedValue primaryColorTypedValue = new TypedValue();
+    try {
+      if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
+        context.getTheme().resolveAttribute(android.R.attr.colorPrimary, primaryColorTypedValue, true);
+        defaultPrimaryColor = primaryColorTypedValue.data;
+      } else {
+        throw new RuntimeException("SDK_INT less than LOLLIPOP");
+      }
+    } catch (Exception e) {
+      try {
+        int colorPrimaryId = view.getResources().getIdentifier("colorPrimary", "attr", view.getContext().getPackageName());
+        if (colorPrimaryId != 0) {
+          context.getTheme().resolveAttribute(colorPrimaryId, primaryColorTypedValue, true);
+          defaultPrimaryColor = primaryColorTypedValue.data;
+        } else {
+          throw new RuntimeException("colorPrimary not found");
+        }
+      } catch (Exception e1) {
+        defaultPrimaryColor = baseColor;
+      }
+    }
+
+    primaryColor = typedArray.getColor(R.styleable.MaterialEditText_met_primaryColor, defaultPrimaryColor);
+    setFloatingLabelInternal(typedArray.getInt(R.styleable.MaterialEditText_met_floatingLabel, 0));
+    errorColor = typedArray.getColor(R.styleable.MaterialEditText_met_errorColor, Color.parseColor("#e7492E"));
+    fieldModel.setMinCharacters(typedArray.getInt(R.styleable.MaterialEditText_met_minCharacters, 0));
+    fieldModel.setMaxCharacters(typedArray.getInt(R.styleable.MaterialEditText_met_maxCharacters, 0));
+    singleLineEllipsis = typedArray.getBoolean(R.styleable.MaterialEditText_met_singleLineEllipsis, false);
+    helperText = typedArray.getString(R.styleable.MaterialEditText_met_helperText);
+    helperTextColor = typedArray.getColor(R.styleable.MaterialEditText_met_helperTextColor, -1);
+    minBottomTextLines = typedArray.getInt(R.styleable.MaterialEditText_met_minBottomTextLines, 0);
+    fixedBottomTextLines = typedArray.getBoolean(R.styleable.MaterialEditText_met_fixedBottomTextLines, false);
+    String fontPathForAccent = typedArray.getString(R.styleable.MaterialEditText_met_accentTypeface);
+    if (fontPathForAccent != null && !view.isInEditMode()) {
+      accentTypeface = getCustomTypeface(fontPathForAccent);
+      textPaint.setTypeface(accentTypeface);
+    }
+    String fontPathForView = typedArray.getString(R.styleable.MaterialEditText_met_typeface);
+    if (fontPathForView != null && !view.isInEditMode()) {
+      typeface = getCustomTypeface(fontPathForView);
+      view.setTypeface(typeface);
+    }
+    floatingLabelText = typedArray.getString(R.styleable.MaterialEditText_met_floatingLabelText);
+    if (floatingLabelText == null) {
+      floatingLabelText = view.getHint();
+    }
+    floatingLabelPadding = typedArray.getDimensionPixelSize(R.styleable.MaterialEditText_met_floatingLabelPadding, bottomSpacing);
+    floatingLabelTextSize = typedArray.getDimensionPixelSize(R.styleable.MaterialEditText_met_floatingLabelTextSize, view.getResources().getDimensionPixelSize(R.dimen.floating_label_text_size));
+    floatingLabelTextColor = typedArray.getColor(R.styleable.MaterialEditText_met_floatingLabelTextColor, -1);
+    floatingLabelAnimating = typedArray.getBoolean(R.styleable.MaterialEditText_met_floatingLabelAnimating, true);
+    bottomTextSize = typedArray.getDimensionPixelSize(R.styleable.MaterialEditText_met_bottomTextSize, view.getResources().getDimensionPixelSize(R.dimen.bottom_text_size));
+    hideUnderline = typedArray.getBoolean(R.styleable.MaterialEditText_met_hideUnderline, false);
+    underlineColor = typedArray.getColor(R.styleable.MaterialEditText_met_underlineColor, -1);
+    autoValidate = typedArray.getBoolean(R.styleable.MaterialEditText_met_autoValidate, false);
+    iconLeftBitmaps = generateIconBitmaps(typedArray.getResourceId(R.styleable.MaterialEditText_met_iconLeft, -1));
+    iconRightBitmaps = generateIconBitmaps(typedArray.getResourceId(R.styleable.MaterialEditText_met_iconRight, -1));
+    showClearButton = typedArray.getBoolean(R.styleable.MaterialEditText_met_clearButton, false);
+    clearButtonBitmaps = generateIconBitmaps(R.drawable.met_ic_clear);
+    iconPadding = typedArray.getDimensionPixelSize(R.styleable.MaterialEditText_met_iconPadding, getPixel(16));
+    floatingLabelAlwaysShown = typedArray.getBoolean(R.styleable.MaterialEditText_met_floatingLabelAlwaysShown, false);
+    helperTextAlwaysShown = typedArray.getBoolean(R.styleable.MaterialEditText_met_helperTextAlwaysShown, false);
+    validateOnFocusLost = typedArray.getBoolean(R.styleable.MaterialEditText_met_validateOnFocusLost, false);
+    deferValidationWhileComposing = typedArray.getBoolean(R.styleable.MaterialEditText_met_deferValidationWhileComposing, false);
+    validateAfterTextWatchers = typedArray.getBoolean(R.styleable.MaterialEditText_met_validateAfterTextWatchers, false);
+    checkCharactersCountAtBeginning = typedArray.getBoolean(R.styleable.MaterialEditText_met_checkCharactersCountAtBeginning, true);
+    initDeclaredValidators(typedArray);
+    typedArray.recycle();
+
+    int[] paddings = new int[]{
+        android.R.attr.padding, // 0
+        android.R.attr.paddingLeft, // 1
+        android.R.attr.paddingTop, // 2
+        android.R.attr.paddingRight, // 3
+        android.R.attr.paddingBottom // 4
+    };
+    TypedArray paddingsTypedArray = context.obtainStyledAttributes(attrs, paddings);
+    int padding = paddingsTypedArray.getDimensionPixelSize(0, 0);
+    innerPaddingLeft = paddingsTypedArray.getDimensionPixelSize(1, padding);
+    innerPaddingTop = paddingsTypedArray.getDimensionPixelSize(2, padding);
+    innerPaddingRight = paddingsTypedArray.getDimensionPixelSize(3, padding);
+    innerPaddingBottom = paddingsTypedArray.getDimensionPixelSize(4, padding);
+    paddingsTypedArray.recycle();
+
+    if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+      view.setBackground(null);
+    } else {
+      view.setBackgroundDrawable(null);
+    }
+    if (singleLineEllipsis) {
+      TransformationMethod transformationMethod = view.getTransformationMethod();
+      view.setSingleLine();
+      view.setTransformationMethod(transformationMethod);
+    }
+    initMinBottomLines();
+    initPadding();
+    initText();
+    initFloatingLabel();
+    initTextWatcher();
+    checkCharactersCount();
+  }
+
+  /**
+   * add the validators declared in xml. They're shared by all the views with the same declaration.
+   */
+  private void initDeclaredValidators(TypedArray typedArray) {
+    List<METValidator> declaredValidators = DeclaredValidators.obtain(
+        typedArray.getBoolean(R.styleable.MaterialEditText_met_required, false),
+        getDeclaredError(typedArray, R.styleable.MaterialEditText_met_requiredError, R.string.met_error_required),
+        typedArray.getString(R.styleable.MaterialEditText_met_regex),
+        getDeclaredError(typedArray, R.styleable.MaterialEditText_met_regexError, R.string.met_error_format),
+        typedArray.getInt(R.styleable.MaterialEditText_met_minLength, 0),
+        typedArray.getInt(R.styleable.MaterialEditText_met_maxLength, 0),
+        getDeclaredError(typedArray, R.styleable.MaterialEditText_met_lengthError, R.string.met_error_length),
+        typedArray.getInt(R.styleable.MaterialEditText_met_format, DeclaredValidators.FORMAT_NONE),
+        getDeclaredError(typedArray, R.styleable.MaterialEditText_met_formatError, R.string.met_error_format));
+    fieldModel.setValidators(declaredValidators);
+  }
+
+  private String getDeclaredError(TypedArray typedArray, int index, int defaultRes) {
+    String error = typedArray.getString(index);
+    return error != null ? error : view.getResources().getString(defaultRes);
+  }
+
+  private void initText() {
+    if (!TextUtils.isEmpty(view.getText())) {
+      if (keepText) {
+        resetHintTextColor();
+      } else {
+        CharSequence text = view.getText();
+        view.setText(null);
+        resetHintTextColor();
+        view.setText(text);
+        view.setSelection(text.length());
+      }
+      floatingLabelFraction = 1;
+      floatingLabelShown = true;
+    } else {
+      resetHintTextColor();
+    }
+    resetTextColor();
+  }
+
+  private void initTextWatcher() {
+    innerTextWatcher = new TextWatcher() {
+      @Override
+      public void beforeTextChanged(CharSequence s, int start, int count, int after) {
+        textChangeDepth++;
+      }
+
+      @Override
+      public void onTextChanged(CharSequence s, int start, int before, int count) {
+      }
+
+      @Override
+      public void afterTextChanged(Editable s) {
+        if (textChangeDepth > 0) {
+          textChangeDepth--;
+        }
+        if (textChangeDepth > 0 || inBatchEdit || updateDepth > 0 || hidden) {
+          // the text isn't settled yet, the outer change or the end of the batch edit will handle it
+          textChangePending = true;
+          return;
+        }
+        handleSettledTextChange();
+      }
+    };
+    host.superAddTextChangedListener(innerTextWatcher);
+  }
+
+  void addTextChangedListener(TextWatcher watcher) {
+    if (innerTextWatcher == null || watcher == innerTextWatcher || !validateAfterTextWatchers) {
+      host.superAddTextChangedListener(watcher);
+      return;
+    }
+    view.removeTextChangedListener(innerTextWatcher);
+    host.superAddTextChangedListener(watcher);
+    host.superAddTextChangedListener(innerTextWatcher);
+    if (textChangeDepth > 0) {
+      // added from a watcher: the inner one may miss the end of the change being dispatched, so handle it once the dispatch is over
+      textChangePending = true;
+      if (!settlePosted) {
+        settlePosted = true;
+        if (mainHandler == null) {
+          mainHandler = new Handler(Looper.getMainLooper());
+        }
+        // not view.post(), which holds the runnable back until the view is attached
+        mainHandler.post(settleTextChange);
+      }
+    }
+  }
+
+  boolean isValidateAfterTextWatchers() {
+    return validateAfterTextWatchers;
+  }
+
+  void setValidateAfterTextWatchers(boolean validateAfter) {
+    if (validateAfterTextWatchers == validateAfter) {
+      return;
+    }
+    validateAfterTextWatchers = validateAfter;
+    if (validateAfter && innerTextWatcher != null) {
+      view.removeTextChangedListener(innerTextWatcher);
+      host.superAddTextChangedListener(innerTextWatcher);
+    }
+  }
+
+  void onBeginBatchEdit() {
+    inBatchEdit = true;
+  }
+
+  void onEndBatchEdit() {
+    inBatchEdit = false;
+    if (textChangePending && textChangeDepth == 0 && updateDepth == 0) {
+      handleSettledTextChange();
+    }
+  }
+
+  void beginUpdate() {
+    updateDepth++;
+  }
+
+  void endUpdate() {
+    if (updateDepth == 0) {
+      throw new IllegalStateException("endUpdate() called without beginUpdate()");
+    }
+    if (updateDepth > 1) {
+      updateDepth--;
+      return;
+    }
+    // still inside the update here, so the validation only records its bottom lines change
+    if (textChangePending && textChangeDepth == 0 && !inBatchEdit) {
+      snapFloatingLabel();
+      handleTextChanged();
+    }
+    updateDepth = 0;
+    if (bottomLinesPending) {
+      bottomLinesPending = false;
+      adjustBottomLines(false);
+    }
+    if (paddingsPending) {
+      initPadding();
+    }
+    postInvalidate();
+  }
+
+  boolean isUpdating() {
+    return updateDepth > 0;
+  }
+
+  /**
+   * Show the state at once: the label, the focus highlight and the bottom lines jump to their final values, the validators don't run and
+   * the paddings are applied with at most one layout.
+   */
+  void bind(MaterialFieldState state) {
+    beginUpdate();
+    CharSequence text = state.getText();
+    if (!TextUtils.equals(view.getText(), text)) {
+      view.setText(text);
+    }
+    // the state already holds the error to show, so there's nothing left to check for the new text
+    textChangePending = false;
+    tempErrorText = state.getError();
+    helperText = state.getHelperText();
+    floatingLabelText = state.getFloatingLabelText() == null ? view.getHint() : state.getFloatingLabelText();
+    fieldModel.setValidators(state.getValidators());
+    checkCharactersCount();
+
+    if (labelAnimator != null) {
+      labelAnimator.cancel();
+    }
+    if (labelFocusAnimator != null) {
+      labelFocusAnimator.cancel();
+    }
+    if (bottomLinesAnimator != null) {
+      bottomLinesAnimator.cancel();
+    }
+    floatingLabelShown = text.length() > 0;
+    floatingLabelFraction = floatingLabelShown ? 1 : 0;
+    focusFraction = highlightFloatingLabel && view.hasFocus() ? 1 : 0;
+    bottomLinesPending = true;
+    endUpdate();
+  }
+
+  MaterialFieldState getFieldState() {
+    MaterialFieldState state = new MaterialFieldState();
+    state.setText(view.getText());
+    state.setError(tempErrorText);
+    state.setHelperText(helperText);
+    state.setFloatingLabelText(floatingLabelText);
+    state.setValidators(fieldModel.getValidators());
+    return state;
+  }
+
+  /**
+   * show or hide the floating label for the current text, without animation.
+   */
+  private void snapFloatingLabel() {
+    if (!floatingLabelEnabled) {
+      return;
+    }
+    boolean shown = view.getText().length() > 0;
+    if (floatingLabelShown != shown) {
+      floatingLabelShown = shown;
+      if (labelAnimator != null) {
+        labelAnimator.cancel();
+      }
+      floatingLabelFraction = shown ? 1 : 0;
+    }
+  }
+
+  private void handleSettledTextChange() {
+    updateFloatingLabel();
+    if (deferValidationWhileComposing && BaseInputConnection.getComposingSpanStart(view.getText()) != -1) {
+      textChangePending = true;
+      return;
+    }
+    handleTextChanged();
+  }
+
+  private void handleTextChanged() {
+    textChangePending = false;
+    checkCharactersCount();
+    if (autoValidate) {
+      validate();
+    } else {
+      setError(null);
+    }
+    invalidateDecorations();
+  }
+
+  /**
+   * run the checks held back during the IME composition, if any.
+   */
+  private void finishComposingTextChange() {
+    if (textChangePending && !inBatchEdit && textChangeDepth == 0) {
+      handleSettledTextChange();
+    }
+  }
+
+  /**
+   * @param inputConnection The connection created by the view, may be null.
+   */
+  InputConnection wrapInputConnection(InputConnection inputConnection) {
+    if (inputConnection == null) {
+      return null;
+    }
+    // committing the composition through commitText() changes the text, but finishComposingText() may only drop the composing span
+    return new InputConnectionWrapper(inputConnection, false) {
+      @Override
+      public boolean finishComposingText() {
+        boolean finished = super.finishComposingText();
+        finishComposingTextChange();
+        return finished;
+      }
+    };
+  }
+
+  private Typeface getCustomTypeface(@NonNull String fontPath) {
+    return Typeface.createFromAsset(view.getContext().getAssets(), fontPath);
+  }
+
+  void setIconLeft(@DrawableRes int res) {
+    iconLeftBitmaps = generateIconBitmaps(res);
+    initPadding();
+  }
+
+  void setIconLeft(Drawable drawable) {
+    iconLeftBitmaps = generateIconBitmaps(drawable);
+    initPadding();
+  }
+
+  void setIconLeft(Bitmap bitmap) {
+    iconLeftBitmaps = generateIconBitmaps(bitmap);
+    initPadding();
+  }
+
+  void setIconRight(@DrawableRes int res) {
+    iconRightBitmaps = generateIconBitmaps(res);
+    initPadding();
+  }
+
+  void setIconRight(Drawable drawable) {
+    iconRightBitmaps = generateIconBitmaps(drawable);
+    initPadding();
+  }
+
+  void setIconRight(Bitmap bitmap) {
+    iconRightBitmaps = generateIconBitmaps(bitmap);
+    initPadding();
+  }
+
+  boolean isShowClearButton() {
+    return showClearButton;
+  }
+
+  void setShowClearButton(boolean show) {
+    showClearButton = show;
+    correctPaddings();
+  }
+
+  private Bitmap[] generateIconBitmaps(@DrawableRes int origin) {
+    if (origin == -1) {
+      return null;
+    }
+    BitmapFactory.Options options = new BitmapFactory.Options();
+    options.inJustDecodeBounds = true;
+    BitmapFactory.decodeResource(view.getResources(), origin, options);
+    int size = Math.max(options.outWidth, options.outHeight);
+    options.inSampleSize = size > iconSize ? size / iconSize : 1;
+    options.inJustDecodeBounds = false;
+    workCounters.bitmaps++;
+    return generateIconBitmaps(BitmapFactory.decodeResource(view.getResources(), origin, options));
+  }
+
+  private Bitmap[] generateIconBitmaps(Drawable drawable) {
+    if (drawable == null)
+      return null;
+    Bitmap bitmap = Bitmap.createBitmap(drawable.getIntrinsicWidth(), drawable.getIntrinsicHeight(), Bitmap.Config.ARGB_8888);
+    workCounters.bitmaps++;
+    Canvas canvas = new Canvas(bitmap);
+    drawable.setBounds(0, 0, canvas.getWidth(), canvas.getHeight());
+    drawable.draw(canvas);
+    Bitmap scaled = Bitmap.createScaledBitmap(bitmap, iconSize, iconSize, false);
+    if (scaled != bitmap) {
+      workCounters.bitmaps++;
+    }
+    return generateIconBitmaps(scaled);
+  }
+
+  private Bitmap[] generateIconBitmaps(Bitmap origin) {
+    if (origin == null) {
+      return null;
+    }
+    Bitmap[] iconBitmaps = new Bitmap[4];
+    origin = scaleIcon(origin);
+    // one tinted copy per state
+    workCounters.bitmaps += iconBitmaps.length;
+    iconBitmaps[0] = origin.copy(Bitmap.Config.ARGB_8888, true);
+    Canvas canvas = new Canvas(iconBitmaps[0]);
+    canvas.drawColor(Colors.withAlpha(baseColor, Colors.isLight(baseColor) ? 0xff : 0x8a), PorterDuff.Mode.SRC_IN);
+    iconBitmaps[1] = origin.copy(Bitmap.Config.ARGB_8888, true);
+    canvas = new Canvas(iconBitmaps[1]);
+    canvas.drawColor(primaryColor, PorterDuff.Mode.SRC_IN);
+    iconBitmaps[2] = origin.copy(Bitmap.Config.ARGB_8888, true);
+    canvas = new Canvas(iconBitmaps[2]);
+    canvas.drawColor(Colors.withAlpha(baseColor, Colors.isLight(baseColor) ? 0x4c : 0x42), PorterDuff.Mode.SRC_IN);
+    iconBitmaps[3] = origin.copy(Bitmap.Config.ARGB_8888, true);
+    canvas = new Canvas(iconBitmaps[3]);
+    canvas.drawColor(errorColor, PorterDuff.Mode.SRC_IN);
+    return iconBitmaps;
+  }
+
+  private Bitmap scaleIcon(Bitmap origin) {
+    int width = origin.getWidth();
+    int height = origin.getHeight();
+    int size = Math.max(width, height);
+    if (size == iconSize) {
+      return origin;
+    } else if (size > iconSize) {
+      int scaledWidth;
+      int scaledHeight;
+      if (width > iconSize) {
+        scaledWidth = iconSize;
+        scaledHeight = (int) (iconSize * ((float) height / width));
+      } else {
+        scaledHeight = iconSize;
+        scaledWidth = (int) (iconSize * ((float) width / height));
+      }
+      workCounters.bitmaps++;
+      return Bitmap.createScaledBitmap(origin, scaledWidth, scaledHeight, false);
+    } else {
+      return origin;
+    }
+  }
+
+  float getFloatingLabelFraction() {
+    return floatingLabelFraction;
+  }
+
+  void setFloatingLabelFraction(float floatingLabelFraction) {
+    this.floatingLabelFraction = floatingLabelFraction;
+    invalidateFloatingLabel();
+  }
+
+  float getFocusFraction() {
+    return focusFraction;
+  }
+
+  void setFocusFraction(float focusFraction) {
+    this.focusFraction = focusFraction;
+    invalidateFloatingLabel();
+  }
+
+  /**
+   * Invalidate the band the floating label moves in, from the top of the view to its lowest baseline plus the descent.
+   */
+  private void invalidateFloatingLabel() {
+    if (updateDepth > 0) {
+      return;
+    }
+    workCounters.invalidations++;
+    int bandBottom = innerPaddingTop + floatingLabelTextSize + floatingLabelPadding + floatingLabelTextSize / 2;
+    view.invalidate(view.getScrollX(), view.getScrollY(), view.getScrollX() + view.getWidth(), view.getScrollY() + bandBottom);
+  }
+
+  /**
+   * Invalidate the band below the text: underline, bottom texts, characters counter and bottom ellipsis.
+   */
+  private void postInvalidateBottomText() {
+    if (updateDepth > 0) {
+      return;
+    }
+    workCounters.invalidations++;
+    view.postInvalidate(view.getScrollX(), view.getScrollY() + view.getHeight() - view.getPaddingBottom(), view.getScrollX() + view.getWidth(), view.getScrollY() + view.getHeight());
+  }
+
+  /**
+   * Invalidate the whole view, unless an update is running: it invalidates once at its end.
+   */
+  private void postInvalidate() {
+    if (updateDepth > 0) {
+      return;
+    }
+    workCounters.invalidations++;
+    decorationsInvalidated = true;
+    view.postInvalidate();
+  }
+
+  private void invalidate() {
+    if (updateDepth > 0) {
+      return;
+    }
+    workCounters.invalidations++;
+    decorationsInvalidated = true;
+    view.invalidate();
+  }
+
+  float getCurrentBottomLines() {
+    return currentBottomLines;
+  }
+
+  void setCurrentBottomLines(float currentBottomLines) {
+    this.currentBottomLines = currentBottomLines;
+    initPadding();
+  }
+
+  boolean isFloatingLabelAlwaysShown() {
+    return floatingLabelAlwaysShown;
+  }
+
+  void setFloatingLabelAlwaysShown(boolean floatingLabelAlwaysShown) {
+    this.floatingLabelAlwaysShown = floatingLabelAlwaysShown;
+    invalidate();
+  }
+
+  boolean isHelperTextAlwaysShown() {
+    return helperTextAlwaysShown;
+  }
+
+  void setHelperTextAlwaysShown(boolean helperTextAlwaysShown) {
+    this.helperTextAlwaysShown = helperTextAlwaysShown;
+    invalidate();
+  }
+
+  Typeface getAccentTypeface() {
+    return accentTypeface;
+  }
+
+  void setAccentTypeface(Typeface accentTypeface) {
+    this.accentTypeface = accentTypeface;
+    this.textPaint.setTypeface(accentTypeface);
+    postInvalidate();
+  }
+
+  boolean isHideUnderline() {
+    return hideUnderline;
+  }
+
+  void setHideUnderline(boolean hideUnderline) {
+    this.hideUnderline = hideUnderline;
+    initPadding();
+    postInvalidate();
+  }
+
+  int getUnderlineColor() {
+    return underlineColor;
+  }
+
+  void setUnderlineColor(int color) {
+    this.underlineColor = color;
+    postInvalidate();
+  }
+
+  CharSequence getFloatingLabelText() {
+    return floatingLabelText;
+  }
+
+  void setFloatingLabelText(@Nullable CharSequence floatingLabelText) {
+    this.floatingLabelText = floatingLabelText == null ? view.getHint() : floatingLabelText;
+    postInvalidate();
+  }
+
+  int getFloatingLabelTextSize() {
+    return floatingLabelTextSize;
+  }
+
+  void setFloatingLabelTextSize(int size) {
+    floatingLabelTextSize = size;
+    initPadding();
+  }
+
+  int getFloatingLabelTextColor() {
+    return floatingLabelTextColor;
+  }
+
+  void setFloatingLabelTextColor(int color) {
+    this.floatingLabelTextColor = color;
+    postInvalidate();
+  }
+
+  int getBottomTextSize() {
+    return bottomTextSize;
+  }
+
+  void setBottomTextSize(int size) {
+    bottomTextSize = size;
+    initPadding();
+  }
+
+  private int getPixel(int dp) {
+    return Density.dp2px(view.getContext(), dp);
+  }
+
+  private void initPadding() {
+    if (updateDepth > 0) {
+      paddingsPending = true;
+      return;
+    }
+    extraPaddingTop = DecorationMetrics.getExtraPaddingTop(floatingLabelEnabled, floatingLabelTextSize, floatingLabelPadding);
+    textPaint.setTextSize(bottomTextSize);
+    textPaint.getFontMetrics(textMetrics);
+    extraPaddingBottom = DecorationMetrics.getExtraPaddingBottom(textMetrics.descent - textMetrics.ascent, currentBottomLines, hideUnderline, bottomSpacing);
+    extraPaddingLeft = DecorationMetrics.getExtraPaddingIcon(iconLeftBitmaps != null, iconOuterWidth, iconPadding);
+    extraPaddingRight = DecorationMetrics.getExtraPaddingIcon(iconRightBitmaps != null, iconOuterWidth, iconPadding);
+    correctPaddings();
+  }
+
+  /**
+   * calculate {@link #minBottomLines}
+   */
+  private void initMinBottomLines() {
+    boolean extendBottom = fieldModel.hasCharactersCounter() || singleLineEllipsis || tempErrorText != null || helperText != null;
+    currentBottomLines = minBottomLines = DecorationMetrics.getMinBottomLines(fixedBottomTextLines, minBottomTextLines, extendBottom);
+    if (fixedBottomTextLines) {
+      bottomLines = minBottomLines;
+    }
+  }
+
+  void setPaddings(int left, int top, int right, int bottom) {
+    innerPaddingTop = top;
+    innerPaddingBottom = bottom;
+    innerPaddingLeft = left;
+    innerPaddingRight = right;
+    correctPaddings();
+  }
+
+  /**
+   * Set paddings to the correct values
+   */
+  private void correctPaddings() {
+    if (updateDepth > 0) {
+      paddingsPending = true;
+      return;
+    }
+    paddingsPending = false;
+    int buttonsWidthLeft = 0, buttonsWidthRight = 0;
+    int buttonsWidth = iconOuterWidth * getButtonsCount();
+    if (isRTL()) {
+      buttonsWidthLeft = buttonsWidth;
+    } else {
+      buttonsWidthRight = buttonsWidth;
+    }
+    int left = innerPaddingLeft + extraPaddingLeft + buttonsWidthLeft;
+    int top = innerPaddingTop + extraPaddingTop;
+    int right = innerPaddingRight + extraPaddingRight + buttonsWidthRight;
+    int bottom = innerPaddingBottom + extraPaddingBottom;
+    if (left != view.getPaddingLeft() || top != view.getPaddingTop() || right != view.getPaddingRight() || bottom != view.getPaddingBottom()) {
+      // the view only requests a layout for a change
+      workCounters.layouts++;
+    }
+    view.setPadding(left, top, right, bottom);
+  }
+
+  private int getButtonsCount() {
+    return isShowClearButton() ? 1 : 0;
+  }
+
+  void onAttachedToWindow() {
+    if (!firstShown) {
+      firstShown = true;
+    }
+    attached = true;
+    updateHidden();
+  }
+
+  void onDetachedFromWindow() {
+    attached = false;
+    updateHidden();
+  }
+
+  void onWindowVisibilityChanged(int visibility) {
+    windowVisible = visibility == View.VISIBLE;
+    updateHidden();
+  }
+
+  void onVisibilityChanged() {
+    if (attached) {
+      updateHidden();
+    }
+  }
+
+  /**
+   * Finish the animations when the view gets hidden, and catch up with the text changes in one step when it's shown again.
+   */
+  private void updateHidden() {
+    boolean hidden = !attached || !windowVisible || !view.isShown();
+    if (this.hidden == hidden) {
+      return;
+    }
+    this.hidden = hidden;
+    if (hidden) {
+      if (labelAnimator != null) {
+        labelAnimator.end();
+      }
+      if (labelFocusAnimator != null) {
+        labelFocusAnimator.end();
+      }
+      if (bottomLinesAnimator != null) {
+        bottomLinesAnimator.end();
+      }
+    } else if (textChangePending && textChangeDepth == 0 && !inBatchEdit && updateDepth == 0) {
+      snapFloatingLabel();
+      handleTextChanged();
+    }
+  }
+
+  void onLayout(boolean changed) {
+    if (changed) {
+      adjustBottomLines(true);
+    }
+  }
+
+  /**
+   * @param animated Whether to animate the bottom lines change.
+   * @return True, if adjustments were made that require the view to be invalidated.
+   */
+  private boolean adjustBottomLines(boolean animated) {
+    // Bail out if we have a zero width; lines will be adjusted during next layout.
+    if (view.getWidth() == 0) {
+      return false;
+    }
+    if (updateDepth > 0) {
+      bottomLinesPending = true;
+      return false;
+    }
+    int destBottomLines;
+    textPaint.setTextSize(bottomTextSize);
+    if (tempErrorText != null || helperText != null) {
+      Layout.Alignment alignment = (view.getGravity() & Gravity.RIGHT) == Gravity.RIGHT || isRTL() ?
+          Layout.Alignment.ALIGN_OPPOSITE : (view.getGravity() & Gravity.LEFT) == Gravity.LEFT ?
+          Layout.Alignment.ALIGN_NORMAL : Layout.Alignment.ALIGN_CENTER;
+      String bottomText = tempErrorText != null ? tempErrorText : helperText;
+      int bottomTextWidth = DecorationMetrics.getBottomTextWidth(view.getWidth(), view.getPaddingLeft(), view.getPaddingRight(), getBottomTextLeftOffset(), getBottomTextRightOffset());
+      textLayout = newBottomTextLayout(bottomText, bottomTextWidth, alignment);
+      if (fixedBottomTextLines && textLayout.getLineCount() > minBottomLines) {
+        textLayout = newBottomTextLayout(ellipsizeBottomText(bottomText, bottomTextWidth), bottomTextWidth, alignment);
+      }
+      destBottomLines = DecorationMetrics.getBottomLines(fixedBottomTextLines, minBottomLines, minBottomTextLines, textLayout.getLineCount());
+    } else {
+      destBottomLines = minBottomLines;
+    }
+    if (animated) {
+      if (bottomLines != destBottomLines) {
+        animateCurrentBottomLines(destBottomLines);
+      }
+    } else if (currentBottomLines != destBottomLines) {
+      // also when the target is unchanged: a cancelled animation leaves the current lines between two values
+      if (bottomLinesAnimator != null) {
+        bottomLinesAnimator.cancel();
+      }
+      currentBottomLines = destBottomLines;
+      initPadding();
+    }
+    bottomLines = destBottomLines;
+    return true;
+  }
+
+  private StaticLayout newBottomTextLayout(CharSequence text, int width, Layout.Alignment alignment) {
+    workCounters.staticLayouts++;
+    return new StaticLayout(text, textPaint, width, alignment, 1.0f, 0.0f, true);
+  }
+
+  /**
+   * Cut the bottom text down to {@link #minBottomLines} lines, ending the last one with an ellipsis.
+   * Expects {@link #textLayout} to hold the full text.
+   */
+  private CharSequence ellipsizeBottomText(String bottomText, int width) {
+    int lastLineStart = textLayout.getLineStart(minBottomLines - 1);
+    String lastLine = bottomText.substring(lastLineStart).replace('\n', ' ');
+    return bottomText.substring(0, lastLineStart) + TextUtils.ellipsize(lastLine, textPaint, width, TextUtils.TruncateAt.END);
+  }
+
+  int getInnerPaddingTop() {
+    return innerPaddingTop;
+  }
+
+  int getInnerPaddingBottom() {
+    return innerPaddingBottom;
+  }
+
+  int getInnerPaddingLeft() {
+    return innerPaddingLeft;
+  }
+
+  int getInnerPaddingRight() {
+    return innerPaddingRight;
+  }
+
+  /**
+   * show or hide the floating label for the current text. Called by the inner text watcher.
+   */
+  private void updateFloatingLabel() {
+    if (floatingLabelEnabled) {
+      if (view.getText().length() == 0) {
+        if (floatingLabelShown) {
+          floatingLabelShown = false;
+          animateFloatingLabelFraction(0);
+        }
+      } else if (!floatingLabelShown) {
+        floatingLabelShown = true;
+        animateFloatingLabelFraction(1);
+      }
+    }
+  }
+
+  private void initFloatingLabel() {
+    // observe the focus state to animate the floating label's text color appropriately
+    innerFocusChangeListener = new View.OnFocusChangeListener() {
+      @Override
+      public void onFocusChange(View v, boolean hasFocus) {
+        if (floatingLabelEnabled && highlightFloatingLabel) {
+          if (hasFocus) {
+            animateFocusFraction(1);
+          } else {
+            animateFocusFraction(0);
+          }
+        }
+        if (!hasFocus && textChangePending) {
+          updateFloatingLabel();
+          handleTextChanged();
+        }
+        if (validateOnFocusLost && !hasFocus) {
+          validate();
+        }
+        if (outerFocusChangeListener != null) {
+          outerFocusChangeListener.onFocusChange(v, hasFocus);
+        }
+      }
+    };
+    host.superSetOnFocusChangeListener(innerFocusChangeListener);
+  }
+
+  boolean isValidateOnFocusLost() {
+    return validateOnFocusLost;
+  }
+
+  void setValidateOnFocusLost(boolean validate) {
+    this.validateOnFocusLost = validate;
+  }
+
+  boolean isDeferValidationWhileComposing() {
+    return deferValidationWhileComposing;
+  }
+
+  void setDeferValidationWhileComposing(boolean defer) {
+    this.deferValidationWhileComposing = defer;
+    if (!defer) {
+      finishComposingTextChange();
+    }
+  }
+
+  void setBaseColor(int color) {
+    if (baseColor != color) {
+      baseColor = color;
+    }
+
+    initText();
+
+    postInvalidate();
+  }
+
+  void setPrimaryColor(int color) {
+    primaryColor = color;
+    postInvalidate();
+  }
+
+  void setMetTextColor(int color) {
+    textColorStateList = ColorStateList.valueOf(color);
+    resetTextColor();
+  }
+
+  void setMetTextColor(ColorStateList colors) {
+    textColorStateList = colors;
+    resetTextColor();
+  }
+
+  private void resetTextColor() {
+    if (textColorStateList == null) {
+      textColorStateList = new ColorStateList(new int[][]{new int[]{android.R.attr.state_enabled}, EMPTY_STATE_SET}, new int[]{Colors.withAlpha(baseColor, 0xdf), Colors.withAlpha(baseColor, 0x44)});
+      view.setTextColor(textColorStateList);
+    } else {
+      view.setTextColor(textColorStateList);
+    }
+  }
+
+  void setMetHintTextColor(int color) {
+    textColorHintStateList = ColorStateList.valueOf(color);
+    resetHintTextColor();
+  }
+
+  void setMetHintTextColor(ColorStateList colors) {
+    textColorHintStateList = colors;
+    resetHintTextColor();
+  }
+
+  private void resetHintTextColor() {
+    if (textColorHintStateList == null) {
+      view.setHintTextColor(Colors.withAlpha(baseColor, 0x44));
+    } else {
+      view.setHintTextColor(textColorHintStateList);
+    }
+  }
+
+  private void setFloatingLabelInternal(int mode) {
+    switch (mode) {
+      case MaterialEditText.FLOATING_LABEL_NORMAL:
+        floatingLabelEnabled = true;
+        highlightFloatingLabel = false;
+        break;
+      case MaterialEditText.FLOATING_LABEL_HIGHLIGHT:
+        floatingLabelEnabled = true;
+        highlightFloatingLabel = true;
+        break;
+      default:
+        floatingLabelEnabled = false;
+        highlightFloatingLabel = false;
+        break;
+    }
+  }
+
+  void setFloatingLabel(int mode) {
+    setFloatingLabelInternal(mode);
+    initPadding();
+  }
+
+  int getFloatingLabelPadding() {
+    return floatingLabelPadding;
+  }
+
+  void setFloatingLabelPadding(int padding) {
+    floatingLabelPadding = padding;
+    postInvalidate();
+  }
+
+  boolean isFloatingLabelAnimating() {
+    return floatingLabelAnimating;
+  }
+
+  void setFloatingLabelAnimating(boolean animating) {
+    floatingLabelAnimating = animating;
+  }
+
+  void setSingleLineEllipsis() {
+    setSingleLineEllipsis(true);
+  }
+
+  void setSingleLineEllipsis(boolean enabled) {
+    singleLineEllipsis = enabled;
+    initMinBottomLines();
+    initPadding();
+    postInvalidate();
+  }
+
+  int getMaxCharacters() {
+    return fieldModel.getMaxCharacters();
+  }
+
+  void setMaxCharacters(int max) {
+    fieldModel.setMaxCharacters(max);
+    initMinBottomLines();
+    initPadding();
+    postInvalidate();
+  }
+
+  int getMinCharacters() {
+    return fieldModel.getMinCharacters();
+  }
+
+  void setMinCharacters(int min) {
+    fieldModel.setMinCharacters(min);
+    initMinBottomLines();
+    initPadding();
+    postInvalidate();
+  }
+
+  int getMinBottomTextLines() {
+    return minBottomTextLines;
+  }
+
+  void setMinBottomTextLines(int lines) {
+    minBottomTextLines = lines;
+    initMinBottomLines();
+    adjustBottomLines(false);
+    initPadding();
+    postInvalidate();
+  }
+
+  boolean isFixedBottomTextLines() {
+    return fixedBottomTextLines;
+  }
+
+  void setFixedBottomTextLines(boolean fixed) {
+    fixedBottomTextLines = fixed;
+    initMinBottomLines();
+    adjustBottomLines(false);
+    initPadding();
+    postInvalidate();
+  }
+
+  boolean isAutoValidate() {
+    return autoValidate;
+  }
+
+  void setAutoValidate(boolean autoValidate) {
+    this.autoValidate = autoValidate;
+    if (autoValidate) {
+      validate();
+    }
+  }
+
+  int getErrorColor() {
+    return errorColor;
+  }
+
+  void setErrorColor(int color) {
+    errorColor = color;
+    postInvalidate();
+  }
+
+  void setHelperText(CharSequence helperText) {
+    String text = helperText == null ? null : helperText.toString();
+    if (TextUtils.equals(this.helperText, text)) {
+      return;
+    }
+    this.helperText = text;
+    if (adjustBottomLines(true)) {
+      invalidateDecorations();
+    }
+  }
+
+  String getHelperText() {
+    return helperText;
+  }
+
+  int getHelperTextColor() {
+    return helperTextColor;
+  }
+
+  void setHelperTextColor(int color) {
+    helperTextColor = color;
+    postInvalidate();
+  }
+
+  void setError(CharSequence errorText) {
+    String text = errorText == null ? null : errorText.toString();
+    if (TextUtils.equals(tempErrorText, text)) {
+      return;
+    }
+    tempErrorText = text;
+    if (adjustBottomLines(true)) {
+      invalidateDecorations();
+    }
+    if (errorListener != null) {
+      errorListener.onErrorChanged(text);
+    }
+  }
+
+  CharSequence getError() {
+    return tempErrorText;
+  }
+
+  /**
+   * only used to draw the bottom line
+   */
+  private boolean isInternalValid() {
+    return tempErrorText == null && isCharactersCountValid();
+  }
+
+  boolean isValid(String regex) {
+    if (regex == null) {
+      return false;
+    }
+    Pattern pattern = Pattern.compile(regex);
+    Matcher matcher = pattern.matcher(view.getText());
+    return matcher.matches();
+  }
+
+  boolean validate(String regex, CharSequence errorText) {
+    boolean isValid = isValid(regex);
+    if (!isValid) {
+      setError(errorText);
+    }
+    invalidateDecorations();
+    return isValid;
+  }
+
+  boolean validateWith(@NonNull METValidator validator) {
+    CharSequence text = view.getText();
+    workCounters.validations++;
+    METValidationResult result = validator.validate(text, text.length() == 0);
+    if (!result.isValid()) {
+      setError(result.getErrorMessage());
+    }
+    invalidateDecorations();
+    return result.isValid();
+  }
+
+  boolean validate() {
+    if (!fieldModel.hasValidators()) {
+      return true;
+    }
+
+    int runCount = METValidationPolicy.getRunCount();
+    METValidationResult result = fieldModel.validate(view.getText());
+    workCounters.validations += METValidationPolicy.getRunCount() - runCount;
+    setError(result.isValid() ? null : result.getErrorMessage());
+
+    invalidateDecorations();
+    return result.isValid();
+  }
+
+  boolean hasValidators() {
+    return fieldModel.hasValidators();
+  }
+
+  void addValidator(METValidator validator) {
+    fieldModel.addValidator(validator);
+  }
+
+  void clearValidators() {
+    fieldModel.clearValidators();
+  }
+
+  List<METValidator> getValidators() {
+    return fieldModel.getValidators();
+  }
+
+  METValidationPolicy getValidationPolicy() {
+    return fieldModel.getValidationPolicy();
+  }
+
+  void setValidationPolicy(@Nullable METValidationPolicy policy) {
+    fieldModel.setValidationPolicy(policy);
+  }
+
+  void setLengthChecker(METLengthChecker lengthChecker) {
+    fieldModel.setLengthChecker(lengthChecker);
+    CharSequence text = view.getText();
+    charactersCount = text == null ? 0 : checkLength(text);
+    postInvalidate();
+  }
+
+  void setOnFocusChangeListener(View.OnFocusChangeListener listener) {
+    if (innerFocusChangeListener == null) {
+      host.superSetOnFocusChangeListener(listener);
+    } else {
+      outerFocusChangeListener = listener;
+    }
+  }
+
+  /**
+   * animate the floating label from its current position, so that a reversal midway takes the remaining time only.
+   */
+  private void animateFloatingLabelFraction(float fraction) {
+    if (labelAnimator == null) {
+      labelAnimator = new AnimationDriver.Animation(animationTarget, PROPERTY_FLOATING_LABEL_FRACTION);
+    }
+    long duration = floatingLabelAnimating && !hidden ? (long) (ANIMATION_DURATION * Math.abs(fraction - floatingLabelFraction)) : 0;
+    labelAnimator.start(floatingLabelFraction, fraction, duration);
+  }
+
+  private void animateFocusFraction(float fraction) {
+    if (labelFocusAnimator == null) {
+      labelFocusAnimator = new AnimationDriver.Animation(animationTarget, PROPERTY_FOCUS_FRACTION);
+    }
+    labelFocusAnimator.start(focusFraction, fraction, hidden ? 0 : (long) (ANIMATION_DURATION * Math.abs(fraction - focusFraction)));
+  }
+
+  private void animateCurrentBottomLines(float destBottomLines) {
+    if (bottomLinesAnimator == null) {
+      bottomLinesAnimator = new AnimationDriver.Animation(animationTarget, PROPERTY_CURRENT_BOTTOM_LINES);
+    }
+    bottomLinesAnimator.start(currentBottomLines, destBottomLines, hidden ? 0 : ANIMATION_DURATION);
+  }
+
+  /**
+   * flags of the state that the decorations are drawn from, beside the texts.
+   */
+  private int getDecorationFlags() {
+    return (isCharactersCountValid() ? 1 : 0)
+        | (floatingLabelShown ? 1 << 1 : 0)
+        | (TextUtils.isEmpty(view.getText()) ? 0 : 1 << 2)
+        | (view.hasFocus() ? 1 << 3 : 0)
+        | (view.isEnabled() ? 1 << 4 : 0);
+  }
+
+  /**
+   * @return the characters count shown by the counter, or -1 if the counter isn't shown.
+   */
+  private int getDrawnCharactersCount() {
+    return (view.hasFocus() && hasCharactersCounter()) || !isCharactersCountValid() ? charactersCount : -1;
+  }
+
+  /**
+   * Invalidate only if the decorations would look different from the last drawn frame. When only the characters counter changed, only
+   * the bottom band is invalidated.
+   */
+  private void invalidateDecorations() {
+    if (hidden || decorationsInvalidated) {
+      // the whole view is redrawn when it's shown again, or with the pending invalidation
+      return;
+    }
+    if (drawnDecorationFlags != getDecorationFlags() || !TextUtils.equals(drawnErrorText, tempErrorText) || drawnTextLayout != textLayout) {
+      postInvalidate();
+    } else if (drawnCharactersCount != getDrawnCharactersCount()) {
+      postInvalidateBottomText();
+    }
+  }
+
+  void onDraw(@NonNull Canvas canvas) {
+    decorationsInvalidated = false;
+    drawnDecorationFlags = getDecorationFlags();
+    drawnErrorText = tempErrorText;
+    drawnTextLayout = textLayout;
+    drawnCharactersCount = getDrawnCharactersCount();
+
+    canvas.save();
+    canvas.translate(view.getScrollX(), view.getScrollY());
+    if (canUseDecorationLayer(canvas)) {
+      fillStaticDecorationKey(staticDecorationLayer.key, staticDecorationLayer.refs);
+      if (staticDecorationLayer.isStale()) {
+        drawStaticDecorations(staticDecorationLayer.beginRecording(view.getWidth(), view.getHeight()));
+        staticDecorationLayer.endRecording();
+      }
+      canvas.drawPicture(staticDecorationLayer.picture);
+      if (isLabelAnimating()) {
+        // every frame changes the label, a recording would be replayed only once
+        drawDynamicDecorations(canvas);
+      } else {
+        fillDynamicDecorationKey(dynamicDecorationLayer.key, dynamicDecorationLayer.refs);
+        if (dynamicDecorationLayer.isStale()) {
+          drawDynamicDecorations(dynamicDecorationLayer.beginRecording(view.getWidth(), view.getHeight()));
+          dynamicDecorationLayer.endRecording();
+        }
+        canvas.drawPicture(dynamicDecorationLayer.picture);
+      }
+    } else {
+      drawStaticDecorations(canvas);
+      drawDynamicDecorations(canvas);
+    }
+    canvas.restore();
+  }
+
+  private boolean isLabelAnimating() {
+    return (labelAnimator != null && labelAnimator.isRunning()) || (labelFocusAnimator != null && labelFocusAnimator.isRunning());
+  }
+
+  /**
+   * Picture playback isn't supported on hardware accelerated canvases before M. That is the usual case on API 11 to 22: there the
+   * decorations are drawn directly on every frame, only the cursor blink of software-rendered views and of M and later replays the layers.
+   */
+  @TargetApi(Build.VERSION_CODES.HONEYCOMB)
+  private boolean canUseDecorationLayer(Canvas canvas) {
+    return Build.VERSION.SDK_INT < Build.VERSION_CODES.HONEYCOMB || Build.VERSION.SDK_INT >= 23 || !canvas.isHardwareAccelerated();
+  }
+
+  /**
+   * Collect everything {@link #drawStaticDecorations(Canvas)} depends on.
+   */
+  private void fillStaticDecorationKey(int[] key, Object[] refs) {
+    int i = 0;
+    key[i++] = view.getWidth();
+    key[i++] = view.getHeight();
+    key[i++] = view.getPaddingLeft();
+    key[i++] = view.getPaddingRight();
+    key[i++] = view.getPaddingBottom();
+    key[i++] = baseColor;
+    key[i++] = primaryColor;
+    key[i++] = errorColor;
+    key[i++] = underlineColor;
+    key[i++] = helperTextColor;
+    key[i++] = bottomTextSize;
+    key[i++] = iconPadding;
+    key[i++] = textLayout == null ? 0 : getBottomTextLeftOffset();
+    key[i] = (view.isEnabled() ? 1 : 0)
+        | (view.hasFocus() ? 1 << 1 : 0)
+        | (isInternalValid() ? 1 << 2 : 0)
+        | (hideUnderline ? 1 << 3 : 0)
+        | (showClearButton && !TextUtils.isEmpty(view.getText()) ? 1 << 4 : 0)
+        | (view.getScrollX() != 0 ? 1 << 5 : 0)
+        | (isRTL() ? 1 << 6 : 0)
+        | (helperTextAlwaysShown ? 1 << 7 : 0)
+        | (singleLineEllipsis ? 1 << 8 : 0);
+    i = 0;
+    refs[i++] = tempErrorText;
+    refs[i++] = helperText;
+    refs[i++] = textLayout;
+    refs[i++] = iconLeftBitmaps;
+    refs[i++] = iconRightBitmaps;
+    refs[i++] = clearButtonBitmaps;
+    refs[i] = accentTypeface;
+  }
+
+  /**
+   * Collect everything {@link #drawDynamicDecorations(Canvas)} depends on.
+   */
+  private void fillDynamicDecorationKey(int[] key, Object[] refs) {
+    int i = 0;
+    key[i++] = view.getWidth();
+    key[i++] = view.getHeight();
+    key[i++] = view.getPaddingLeft();
+    key[i++] = view.getPaddingRight();
+    key[i++] = view.getPaddingBottom();
+    key[i++] = innerPaddingTop;
+    key[i++] = innerPaddingLeft;
+    key[i++] = innerPaddingRight;
+    key[i++] = view.getGravity();
+    key[i++] = baseColor;
+    key[i++] = primaryColor;
+    key[i++] = errorColor;
+    key[i++] = floatingLabelTextColor;
+    key[i++] = floatingLabelTextSize;
+    key[i++] = floatingLabelPadding;
+    key[i++] = bottomTextSize;
+    key[i++] = iconPadding;
+    key[i++] = fieldModel.getMinCharacters();
+    key[i++] = fieldModel.getMaxCharacters();
+    key[i++] = Float.floatToIntBits(floatingLabelFraction);
+    key[i++] = Float.floatToIntBits(focusFraction);
+    key[i++] = drawnCharactersCount;
+    key[i] = (view.isEnabled() ? 1 : 0)
+        | (view.hasFocus() ? 1 << 1 : 0)
+        | (isCharactersCountValid() ? 1 << 2 : 0)
+        | (hideUnderline ? 1 << 3 : 0)
+        | (isRTL() ? 1 << 4 : 0)
+        | (floatingLabelEnabled ? 1 << 5 : 0)
+        | (floatingLabelAlwaysShown ? 1 << 6 : 0)
+        | (iconLeftBitmaps != null ? 1 << 7 : 0)
+        | (iconRightBitmaps != null ? 1 << 8 : 0);
+    refs[0] = floatingLabelText;
+    refs[1] = accentTypeface;
+  }
+
+  private int getDecorationStartX() {
+    int startX = iconLeftBitmaps == null ? 0 : (iconOuterWidth + iconPadding);
+    return decorationsInsidePadding ? startX + view.getPaddingLeft() : startX;
+  }
+
+  private int getDecorationEndX() {
+    int endX = iconRightBitmaps == null ? view.getWidth() : view.getWidth() - iconOuterWidth - iconPadding;
+    return decorationsInsidePadding ? endX - view.getPaddingRight() : endX;
+  }
+
+  /**
+   * Draw the decorations that only change with the state: the icons, the clear button, the underline, the helper/error text and the
+   * bottom ellipsis, relative to the scrolled origin.
+   */
+  private void drawStaticDecorations(Canvas canvas) {
+    int startX = getDecorationStartX();
+    int endX = getDecorationEndX();
+    int lineStartY = view.getHeight() - view.getPaddingBottom();
+
+    // draw the icon(s)
+    paint.setAlpha(255);
+    if (iconLeftBitmaps != null) {
+      Bitmap icon = iconLeftBitmaps[!isInternalValid() ? 3 : !view.isEnabled() ? 2 : view.hasFocus() ? 1 : 0];
+      int iconLeft = startX - iconPadding - iconOuterWidth + (iconOuterWidth - icon.getWidth()) / 2;
+      int iconTop = lineStartY + bottomSpacing - iconOuterHeight + (iconOuterHeight - icon.getHeight()) / 2;
+      canvas.drawBitmap(icon, iconLeft, iconTop, paint);
+    }
+    if (iconRightBitmaps != null) {
+      Bitmap icon = iconRightBitmaps[!isInternalValid() ? 3 : !view.isEnabled() ? 2 : view.hasFocus() ? 1 : 0];
+      int iconRight = endX + iconPadding + (iconOuterWidth - icon.getWidth()) / 2;
+      int iconTop = lineStartY + bottomSpacing - iconOuterHeight + (iconOuterHeight - icon.getHeight()) / 2;
+      canvas.drawBitmap(icon, iconRight, iconTop, paint);
+    }
+
+    // draw the clear button
+    if (view.hasFocus() && showClearButton && !TextUtils.isEmpty(view.getText()) && view.isEnabled()) {
+      paint.setAlpha(255);
+      int buttonLeft;
+      if (isRTL()) {
+        buttonLeft = startX;
+      } else {
+        buttonLeft = endX - iconOuterWidth;
+      }
+      Bitmap clearButtonBitmap = clearButtonBitmaps[0];
+      buttonLeft += (iconOuterWidth - clearButtonBitmap.getWidth()) / 2;
+      int iconTop = lineStartY + bottomSpacing - iconOuterHeight + (iconOuterHeight - clearButtonBitmap.getHeight()) / 2;
+      canvas.drawBitmap(clearButtonBitmap, buttonLeft, iconTop, paint);
+    }
+
+    // draw the underline
+    if (!hideUnderline) {
+      lineStartY += bottomSpacing;
+      if (!isInternalValid()) { // not valid
+        paint.setColor(errorColor);
+        canvas.drawRect(startX, lineStartY, endX, lineStartY + getPixel(2), paint);
+      } else if (!view.isEnabled()) { // disabled
+        paint.setColor(underlineColor != -1 ? underlineColor : Colors.withAlpha(baseColor, 0x44));
+        float interval = getPixel(1);
+        for (float xOffset = 0; xOffset < view.getWidth(); xOffset += interval * 3) {
+          canvas.drawRect(startX + xOffset, lineStartY, startX + xOffset + interval, lineStartY + getPixel(1), paint);
+        }
+      } else if (view.hasFocus()) { // focused
+        paint.setColor(primaryColor);
+        canvas.drawRect(startX, lineStartY, endX, lineStartY + getPixel(2), paint);
+      } else { // normal
+        paint.setColor(underlineColor != -1 ? underlineColor : Colors.withAlpha(baseColor, 0x1E));
+        canvas.drawRect(startX, lineStartY, endX, lineStartY + getPixel(1), paint);
+      }
+    }
+
+    textPaint.setTextSize(bottomTextSize);
+    textPaint.getFontMetrics(textMetrics);
+    float bottomTextPadding = bottomTextSize + textMetrics.ascent + textMetrics.descent;
+
+    // draw the bottom text
+    if (textLayout != null) {
+      if (tempErrorText != null || ((helperTextAlwaysShown || view.hasFocus()) && !TextUtils.isEmpty(helperText))) { // error text or helper text
+        textPaint.setColor(tempErrorText != null ? errorColor : helperTextColor != -1 ? helperTextColor : Colors.withAlpha(baseColor, 0x44));
+        canvas.save();
+        if (isRTL()) {
+          canvas.translate(endX - textLayout.getWidth(), lineStartY + bottomSpacing - bottomTextPadding);
+        } else {
+          canvas.translate(startX + getBottomTextLeftOffset(), lineStartY + bottomSpacing - bottomTextPadding);
+        }
+        textLayout.draw(canvas);
+        canvas.restore();
+      }
+    }
+
+    // draw the bottom ellipsis
+    if (view.hasFocus() && singleLineEllipsis && view.getScrollX() != 0) {
+      paint.setColor(isInternalValid() ? primaryColor : errorColor);
+      float startY = lineStartY + bottomSpacing;
+      int ellipsisStartX;
+      if (isRTL()) {
+        ellipsisStartX = endX;
+      } else {
+        ellipsisStartX = startX;
+      }
+      int signum = isRTL() ? -1 : 1;
+      canvas.drawCircle(ellipsisStartX + signum * bottomEllipsisSize / 2, startY + bottomEllipsisSize / 2, bottomEllipsisSize / 2, paint);
+      canvas.drawCircle(ellipsisStartX + signum * bottomEllipsisSize * 5 / 2, startY + bottomEllipsisSize / 2, bottomEllipsisSize / 2, paint);
+      canvas.drawCircle(ellipsisStartX + signum * bottomEllipsisSize * 9 / 2, startY + bottomEllipsisSize / 2, bottomEllipsisSize / 2, paint);
+    }
+  }
+
+  /**
+   * Draw the decorations that change while typing or animating: the characters counter and the floating label, relative to the scrolled
+   * origin.
+   */
+  private void drawDynamicDecorations(Canvas canvas) {
+    int startX = getDecorationStartX();
+    int endX = getDecorationEndX();
+    int lineStartY = view.getHeight() - view.getPaddingBottom();
+
+    if (!hideUnderline) {
+      lineStartY += bottomSpacing;
+    }
+
+    textPaint.setTextSize(bottomTextSize);
+    textPaint.getFontMetrics(textMetrics);
+    float relativeHeight = -textMetrics.ascent - textMetrics.descent;
+
+    // draw the characters counter
+    if ((view.hasFocus() && hasCharactersCounter()) || !isCharactersCountValid()) {
+      textPaint.setColor(isCharactersCountValid() ? Colors.withAlpha(baseColor, 0x44) : errorColor);
+      String charactersCounterText = getCharactersCounterText();
+      canvas.drawText(charactersCounterText, isRTL() ? startX : endX - textPaint.measureText(charactersCounterText), lineStartY + bottomSpacing + relativeHeight, textPaint);
+    }
+
+    // draw the floating label
+    if (floatingLabelEnabled && !TextUtils.isEmpty(floatingLabelText)) {
+      textPaint.setTextSize(floatingLabelTextSize);
+      // calculate the text color
+      textPaint.setColor(Colors.blend(floatingLabelTextColor != -1 ? floatingLabelTextColor : Colors.withAlpha(baseColor, 0x44), primaryColor, focusFraction * (view.isEnabled() ? 1 : 0)));
+
+      // calculate the horizontal position
+      float floatingLabelWidth = textPaint.measureText(floatingLabelText, 0, floatingLabelText.length());
+      int floatingLabelStartX;
+      if ((view.getGravity() & Gravity.RIGHT) == Gravity.RIGHT || isRTL()) {
+        floatingLabelStartX = (int) (endX - floatingLabelWidth);
+      } else if ((view.getGravity() & Gravity.LEFT) == Gravity.LEFT) {
+        floatingLabelStartX = startX;
+      } else {
+        floatingLabelStartX = startX + (int) (getInnerPaddingLeft() + (view.getWidth() - getInnerPaddingLeft() - getInnerPaddingRight() - floatingLabelWidth) / 2);
+      }
+
+      // calculate the vertical position
+      int distance = floatingLabelPadding;
+      int floatingLabelStartY = (int) (innerPaddingTop + floatingLabelTextSize + floatingLabelPadding - distance * (floatingLabelAlwaysShown ? 1 : floatingLabelFraction));
+
+      // calculate the alpha
+      int alpha = ((int) ((floatingLabelAlwaysShown ? 1 : floatingLabelFraction) * 0xff * (0.74f * focusFraction * (view.isEnabled() ? 1 : 0) + 0.26f) * (floatingLabelTextColor != -1 ? 1 : Color.alpha(floatingLabelTextColor) / 256f)));
+      textPaint.setAlpha(alpha);
+
+      // draw the floating label
+      canvas.drawText(floatingLabelText, 0, floatingLabelText.length(), floatingLabelStartX, floatingLabelStartY, textPaint);
+    }
+  }
+
+  /**
+   * A recorded part of the decorations, with the state it was recorded from.
+   */
+  private static class DecorationLayer {
+    final Picture picture = new Picture();
+    int[] key;
+    Object[] refs;
+    private int[] recordedKey;
+    private Object[] recordedRefs;
+    private boolean recorded;
+
+    DecorationLayer(int keySize, int refsSize) {
+      key = new int[keySize];
+      refs = new Object[refsSize];
+      recordedKey = new int[keySize];
+      recordedRefs = new Object[refsSize];
+    }
+
+    /**
+     * @return whether the state filled in {@link #key} and {@link #refs} differs from the recorded one.
+     */
+    boolean isStale() {
+      return !recorded || !Arrays.equals(key, recordedKey) || !Arrays.equals(refs, recordedRefs);
+    }
+
+    Canvas beginRecording(int width, int height) {
+      int[] swapKey = recordedKey;
+      recordedKey = key;
+      key = swapKey;
+      Object[] swapRefs = recordedRefs;
+      recordedRefs = refs;
+      refs = swapRefs;
+      recorded = true;
+      return picture.beginRecording(width, height);
+    }
+
+    void endRecording() {
+      picture.endRecording();
+    }
+  }
+
+  @TargetApi(Build.VERSION_CODES.JELLY_BEAN_MR1)
+  private boolean isRTL() {
+    if (Build.VERSION.SDK_INT < Build.VERSION_CODES.JELLY_BEAN_MR1) {
+      return false;
+    }
+    Configuration config = view.getResources().getConfiguration();
+    return config.getLayoutDirection() == View.LAYOUT_DIRECTION_RTL;
+  }
+
+  private int getBottomTextLeftOffset() {
+    return isRTL() ? getCharactersCounterWidth() : getBottomEllipsisWidth();
+  }
+
+  private int getBottomTextRightOffset() {
+    return isRTL() ? getBottomEllipsisWidth() : getCharactersCounterWidth();
+  }
+
+  private int getCharactersCounterWidth() {
+    return hasCharactersCounter() ? (int) textPaint.measureText(getCharactersCounterText()) : 0;
+  }
+
+  private int getBottomEllipsisWidth() {
+    return DecorationMetrics.getBottomEllipsisWidth(singleLineEllipsis, bottomEllipsisSize, getPixel(4));
+  }
+
+  private void checkCharactersCount() {
+    CharSequence text = view.getText();
+    charactersCount = text == null ? 0 : checkLength(text);
+    if (!firstShown && !checkCharactersCountAtBeginning) {
+      charactersCountValid = true;
+    } else {
+      charactersCountValid = text == null || fieldModel.isCharactersCountValid(text);
+    }
+  }
+
+  boolean isCharactersCountValid() {
+    return charactersCountValid;
+  }
+
+  private boolean hasCharactersCounter() {
+    return fieldModel.hasCharactersCounter();
+  }
+
+  private String getCharactersCounterText() {
+    return fieldModel.getCharactersCounterText(charactersCount, isRTL());
+  }
+
+  boolean onTouchEvent(MotionEvent event) {
+    if (singleLineEllipsis && view.getScrollX() > 0 && event.getAction() == MotionEvent.ACTION_DOWN && event.getX() < getPixel(4 * 5) && event.getY() > view.getHeight() - extraPaddingBottom - innerPaddingBottom && event.getY() < view.getHeight() - innerPaddingBottom) {
+      view.setSelection(0);
+      return false;
+    }
+    if (view.hasFocus() && showClearButton && view.isEnabled()) {
+      switch (event.getAction()) {
+        case MotionEvent.ACTION_DOWN:
+          if (insideClearButton(event)) {
+            clearButtonTouched = true;
+            clearButtonClicking = true;
+            return true;
+          }
+        case MotionEvent.ACTION_MOVE:
+          if (clearButtonClicking && !insideClearButton(event)) {
+            clearButtonClicking = false;
+          }
+          if (clearButtonTouched) {
+            return true;
+          }
+          break;
+        case MotionEvent.ACTION_UP:
+          if (clearButtonClicking) {
+            if (!TextUtils.isEmpty(view.getText())) {
+              view.setText(null);
+            }
+            clearButtonClicking = false;
+          }
+          if (clearButtonTouched) {
+            clearButtonTouched = false;
+            return true;
+          }
+          clearButtonTouched = false;
+          break;
+        case MotionEvent.ACTION_CANCEL:
+          clearButtonTouched = false;
+          clearButtonClicking = false;
+          break;
+      }
+    }
+    return host.superOnTouchEvent(event);
+  }
+
+  private boolean insideClearButton(MotionEvent event) {
+    float x = event.getX();
+    float y = event.getY();
+    int startX = view.getScrollX() + (iconLeftBitmaps == null ? 0 : (iconOuterWidth + iconPadding));
+    int endX = view.getScrollX() + (iconRightBitmaps == null ? view.getWidth() : view.getWidth() - iconOuterWidth - iconPadding);
+    int buttonLeft;
+    if (isRTL()) {
+      buttonLeft = startX;
+    } else {
+      buttonLeft = endX - iconOuterWidth;
+    }
+    int buttonTop = view.getScrollY() + view.getHeight() - view.getPaddingBottom() + bottomSpacing - iconOuterHeight;
+    return (x >= buttonLeft && x < buttonLeft + iconOuterWidth && y >= buttonTop && y < buttonTop + iconOuterHeight);
+  }
+
+  private int checkLength(CharSequence text) {
+    return fieldModel.getLength(text);
+  }
+}
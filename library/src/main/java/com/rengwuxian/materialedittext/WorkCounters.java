@@ -0,0 +1,41 @@
+package com.rengwuxian.materialedittext;
+
+/**
+ * Counts the expensive work a field asks for, so tests can check exact budgets for common operations, e.g. one keystroke with
+ * autoValidate runs each validator once and lays nothing out. Unlike timings, the counts don't depend on the device.
+ */
+final class WorkCounters {
+
+  /**
+   * layouts requested by a change of the paddings.
+   */
+  int layouts;
+
+  /**
+   * invalidate() and postInvalidate() calls, of the whole view or a part of it.
+   */
+  int invalidations;
+
+  /**
+   * StaticLayouts built for the helper/error text.
+   */
+  int staticLayouts;
+
+  /**
+   * validators run, counted one by one: a policy that stops at the first failure or skips some runs fewer.
+   */
+  int validations;
+
+  /**
+   * bitmaps created for the icons and the clear button.
+   */
+  int bitmaps;
+
+  void reset() {
+    layouts = 0;
+    invalidations = 0;
+    staticLayouts = 0;
+    validations = 0;
+    bitmaps = 0;
+  }
+}
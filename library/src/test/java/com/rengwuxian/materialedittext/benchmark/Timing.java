@@ -0,0 +1,43 @@
+package com.rengwuxian.materialedittext.benchmark;
+
+import java.util.Arrays;
+
+/**
+ * A minimal timing loop: warm up, then report the median of several rounds, which is stable enough to compare two runs on the same
+ * machine.
+ */
+final class Timing {
+
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int ROUNDS = 10;
+
+    private Timing() {
+    }
+
+    /**
+     * Run the operation in rounds and print the median time per operation.
+     *
+     * @return The median in nanoseconds per operation.
+     */
+    static double measure(String name, int operationsPerRound, Runnable operation) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            round(operationsPerRound, operation);
+        }
+        long[] times = new long[ROUNDS];
+        for (int i = 0; i < ROUNDS; i++) {
+            times[i] = round(operationsPerRound, operation);
+        }
+        Arrays.sort(times);
+        double median = (double) times[ROUNDS / 2] / operationsPerRound;
+        System.out.println(String.format("%-40s %12.0f ns/op", name, median));
+        return median;
+    }
+
+    private static long round(int operations, Runnable operation) {
+        long start = System.nanoTime();
+        for (int i = 0; i < operations; i++) {
+            operation.run();
+        }
+        return System.nanoTime() - start;
+    }
+}
@@ -0,0 +1,139 @@
+package com.rengwuxian.materialedittext.benchmark;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.text.Editable;
+import android.view.View;
+
+import com.rengwuxian.materialedittext.BuildConfig;
+import com.rengwuxian.materialedittext.MaterialEditText;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Times the widget's hot paths on the JVM, in every {@link WidgetConfig}.
+ * <p/>
+ * Robolectric runs the real widget code over shadowed framework classes, so the numbers leave out the native text and drawing work and
+ * show the widget's own overhead. Compare runs on the same machine only.
+ * <p/>
+ * Skipped by a normal test run; run it with ./gradlew :library:testDebug -Pbenchmark
+ */
+@RunWith(RobolectricGradleTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class WidgetBenchmark {
+
+    private static final int WIDTH = 480;
+
+    private Context context;
+
+    @Before
+    public void setUp() {
+        assumeTrue(Boolean.getBoolean("benchmark"));
+        context = RuntimeEnvironment.application;
+    }
+
+    @After
+    public void tearDown() {
+        if (context != null) {
+            WidgetConfig.reset(context);
+        }
+    }
+
+    @Test
+    public void construction() {
+        for (final WidgetConfig config : WidgetConfig.values()) {
+            Timing.measure("construction " + config, 100, new Runnable() {
+                @Override
+                public void run() {
+                    config.create(context);
+                }
+            });
+        }
+    }
+
+    /**
+     * A layout with a new width, like a rotation, which adjusts the bottom lines.
+     */
+    @Test
+    public void layout() {
+        for (WidgetConfig config : WidgetConfig.values()) {
+            final MaterialEditText view = layOut(config.create(context), WIDTH);
+            Timing.measure("onLayout " + config, 1000, new Runnable() {
+                int width = WIDTH;
+
+                @Override
+                public void run() {
+                    width = width == WIDTH ? WIDTH + 1 : WIDTH;
+                    layOut(view, width);
+                }
+            });
+        }
+    }
+
+    /**
+     * Switching between a one line and a multi line error text, which runs adjustBottomLines.
+     */
+    @Test
+    public void adjustBottomLines() {
+        for (WidgetConfig config : WidgetConfig.values()) {
+            final MaterialEditText view = layOut(config.create(context), WIDTH);
+            Timing.measure("adjustBottomLines " + config, 1000, new Runnable() {
+                boolean longError;
+
+                @Override
+                public void run() {
+                    longError = !longError;
+                    view.setError(longError ? "A long error text that takes more than one line at the bottom of the field" : "Error");
+                }
+            });
+        }
+    }
+
+    @Test
+    public void draw() {
+        for (WidgetConfig config : WidgetConfig.values()) {
+            final MaterialEditText view = layOut(config.create(context), WIDTH);
+            final Canvas canvas = new Canvas(Bitmap.createBitmap(view.getWidth(), view.getHeight(), Bitmap.Config.ARGB_8888));
+            Timing.measure("onDraw " + config, 1000, new Runnable() {
+                @Override
+                public void run() {
+                    view.draw(canvas);
+                }
+            });
+        }
+    }
+
+    /**
+     * Typing a char and deleting it: onTextChanged to afterTextChanged, twice.
+     */
+    @Test
+    public void textChanged() {
+        for (WidgetConfig config : WidgetConfig.values()) {
+            final MaterialEditText view = layOut(config.create(context), WIDTH);
+            view.setAutoValidate(true);
+            final Editable text = view.getText();
+            Timing.measure("textChanged " + config, 1000, new Runnable() {
+                @Override
+                public void run() {
+                    text.append('a');
+                    text.delete(text.length() - 1, text.length());
+                }
+            });
+        }
+    }
+
+    private static MaterialEditText layOut(MaterialEditText view, int width) {
+        view.measure(View.MeasureSpec.makeMeasureSpec(width, View.MeasureSpec.EXACTLY), View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED));
+        view.layout(0, 0, view.getMeasuredWidth(), view.getMeasuredHeight());
+        return view;
+    }
+}
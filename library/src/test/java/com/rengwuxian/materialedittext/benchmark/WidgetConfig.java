@@ -0,0 +1,70 @@
+package com.rengwuxian.materialedittext.benchmark;
+
+import android.content.Context;
+import android.content.res.Configuration;
+import android.content.res.Resources;
+
+import com.rengwuxian.materialedittext.MaterialEditText;
+import com.rengwuxian.materialedittext.R;
+
+import java.util.Locale;
+
+/**
+ * The configurations the widget benchmarks run in, from a plain field to one with all the decorations.
+ */
+enum WidgetConfig {
+    PLAIN,
+    FLOATING_LABEL,
+    ICONS,
+    CLEAR_BUTTON,
+    COUNTER,
+    ERROR,
+    RTL,
+    ALL;
+
+    /**
+     * Create a field in this configuration. Call {@link #reset(Context)} when done, the RTL configurations change the layout direction of
+     * the whole app.
+     */
+    MaterialEditText create(Context context) {
+        setRtl(context, this == RTL || this == ALL);
+        MaterialEditText view = new MaterialEditText(context);
+        view.beginUpdate();
+        view.setHint("Hint");
+        if (this == FLOATING_LABEL || this == ALL) {
+            view.setFloatingLabel(MaterialEditText.FLOATING_LABEL_HIGHLIGHT);
+        }
+        if (this == ICONS || this == ALL) {
+            view.setIconLeft(R.drawable.met_ic_clear);
+            view.setIconRight(R.drawable.met_ic_clear);
+        }
+        if (this == CLEAR_BUTTON || this == ALL) {
+            view.setShowClearButton(true);
+        }
+        if (this == COUNTER || this == ALL) {
+            view.setMinCharacters(2);
+            view.setMaxCharacters(140);
+        }
+        if (this == ERROR || this == ALL) {
+            view.setError("This is an error text long enough to take more than one line at the bottom of the field");
+        }
+        if (this == RTL) {
+            view.setMaxCharacters(140);
+            view.setHelperText("Helper text");
+        }
+        view.endUpdate();
+        view.setText("Some text");
+        return view;
+    }
+
+    static void reset(Context context) {
+        setRtl(context, false);
+    }
+
+    private static void setRtl(Context context, boolean rtl) {
+        Resources resources = context.getResources();
+        Configuration config = resources.getConfiguration();
+        config.setLayoutDirection(rtl ? new Locale("ar") : Locale.US);
+        resources.updateConfiguration(config, resources.getDisplayMetrics());
+    }
+}